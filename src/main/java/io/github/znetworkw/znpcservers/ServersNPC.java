@@ -5,15 +5,21 @@ import io.github.znetworkw.znpcservers.commands.list.DefaultCommand;
 import io.github.znetworkw.znpcservers.configuration.Configuration;
 import io.github.znetworkw.znpcservers.listeners.InventoryListener;
 import io.github.znetworkw.znpcservers.listeners.PlayerListener;
+import io.github.znetworkw.znpcservers.npc.NPCJournal;
 import io.github.znetworkw.znpcservers.npc.NPCModel;
+import io.github.znetworkw.znpcservers.npc.NPCModelListAdapter;
 import io.github.znetworkw.znpcservers.utility.BungeeUtils;
 import io.github.znetworkw.znpcservers.utility.itemstack.ItemStackSerializer;
 import io.github.znetworkw.znpcservers.utility.location.ZLocation;
+import io.github.znetworkw.znpcservers.npc.task.NPCInteractTask;
+import io.github.znetworkw.znpcservers.npc.task.NPCLoader;
 import io.github.znetworkw.znpcservers.npc.task.NPCManagerTask;
 import io.github.znetworkw.znpcservers.npc.NPC;
 import io.github.znetworkw.znpcservers.npc.NPCType;
 import io.github.znetworkw.znpcservers.npc.task.NPCSaveTask;
+import io.github.znetworkw.znpcservers.npc.task.NPCSkinRefreshTask;
 import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import io.github.znetworkw.znpcservers.skin.SkinCache;
 import io.github.znetworkw.znpcservers.user.ZUser;
 import io.github.znetworkw.znpcservers.utility.SchedulerUtils;
 
@@ -65,6 +71,7 @@ public class ServersNPC extends JavaPlugin {
     public final static Gson GSON = new GsonBuilder()
         .registerTypeAdapter(ZLocation.class, ZLocation.SERIALIZER)
         .registerTypeHierarchyAdapter(ItemStack.class, new ItemStackSerializer())
+        .registerTypeAdapterFactory(NPCModelListAdapter.FACTORY)
         .setPrettyPrinting()
         .disableHtmlEscaping()
         .create();
@@ -96,9 +103,19 @@ public class ServersNPC extends JavaPlugin {
         // setup users again for online players
         Bukkit.getOnlinePlayers().forEach(ZUser::find);
 
+        // apply the npc changes that were not saved
+        NPCJournal.open(this, ConfigurationConstants.NPC_LIST);
+
+        // load all saved NPCs
+        new NPCLoader(this, ConfigurationConstants.NPC_LIST);
+
         // init NPC task
         new NPCManagerTask(this);
+        new NPCInteractTask(this);
         new NPCSaveTask(this, ConfigurationConstants.SAVE_DELAY);
+        if (ConfigurationConstants.SKIN_REFRESH_SECONDS > 0) {
+            new NPCSkinRefreshTask(this);
+        }
 
         // register listeners
         new PlayerListener(this);
@@ -107,7 +124,13 @@ public class ServersNPC extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        Configuration.awaitSaves();
+        NPCJournal.close();
         Configuration.SAVE_CONFIGURATIONS.forEach(Configuration::save);
+        // the saved npcs contain all the journal changes
+        NPCJournal.clear();
+        SkinCache.save();
+        NPCSkinRefreshTask.saveCursor();
         Bukkit.getOnlinePlayers().forEach(ZUser::unregister);
     }
 
@@ -147,6 +170,7 @@ public class ServersNPC extends JavaPlugin {
             .withLocation(new ZLocation(location))
             .withNpcType(npcType);
         ConfigurationConstants.NPC_LIST.add(pojo);
+        NPCJournal.record(pojo);
         return new NPC(pojo, true);
     }
 
@@ -162,5 +186,6 @@ public class ServersNPC extends JavaPlugin {
         }
         NPC.unregister(npcID);
         ConfigurationConstants.NPC_LIST.remove(npc.getNpcPojo());
+        NPCJournal.delete(npcID);
     }
 }
@@ -297,6 +297,11 @@ public final class CacheRegistry {
             .withCategory(CacheCategory.ENTITY)
             .withClassName("EntityTypes")).load();
 
+    public static final Class<?> ENTITY_TEXT_DISPLAY_CLASS = new ClazzLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.ENTITY)
+            .withClassName("Display$TextDisplay")).load();
+
     public static final Class<?> ENUM_CHAT_CLASS = new ClazzLoader(
         new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
             .withClassName("EnumChatFormat")).load();
@@ -336,6 +341,11 @@ public final class CacheRegistry {
             .withCategory(CacheCategory.SYNCHER)
             .withClassName("DataWatcherSerializer")).load();
 
+    public static final Class<?> DATA_WATCHER_VALUE_CLASS = new ClazzLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName("DataWatcher$b")).load();
+
     public static final Class<?> WORLD_CLASS = new ClazzLoader(
         new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
             .withCategory(CacheCategory.WORLD_LEVEL)
@@ -524,6 +534,30 @@ public final class CacheRegistry {
             .withClassName(DATA_WATCHER_OBJECT)
             .withParameterTypes(int.class, DATA_WATCHER_SERIALIZER)).load();
 
+    public static final Constructor<?> DATA_WATCHER_CONSTRUCTOR = new ConstructorLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_CLASS)
+            .withParameterTypes(ENTITY_CLASS)).load();
+
+    public static final Constructor<?> TEXT_DISPLAY_CONSTRUCTOR = new ConstructorLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.ENTITY)
+            .withClassName(ENTITY_TEXT_DISPLAY_CLASS)
+            .withParameterTypes(ENTITY_TYPES_CLASS, WORLD_CLASS)).load();
+
+    public static final Constructor<?> PACKET_PLAY_OUT_SPAWN_ENTITY_NEW_CONSTRUCTOR = new ConstructorLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.PACKET)
+            .withClassName("PacketPlayOutSpawnEntity")
+            .withParameterTypes(ENTITY_CLASS)).load();
+
+    public static final Constructor<?> PACKET_PLAY_OUT_ENTITY_META_DATA_VALUES_CONSTRUCTOR = new ConstructorLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.PACKET)
+            .withClassName("PacketPlayOutEntityMetadata")
+            .withParameterTypes(int.class, List.class)).load();
+
     public static final Method AS_NMS_COPY_METHOD = new MethodLoader(
         new TypeCache.CacheBuilder(CachePackage.CRAFT_BUKKIT).
             withClassName("inventory.CraftItemStack").
@@ -613,6 +647,20 @@ public final class CacheRegistry {
             .withMethodName("watch")
             .withParameterTypes(int.class, Object.class)).load();
 
+    public static final Method REGISTER_DATA_WATCHER_METHOD_OLD = new MethodLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_CLASS)
+            .withMethodName("a")
+            .withParameterTypes(int.class, Object.class)).load();
+
+    public static final Method REGISTER_DATA_WATCHER_METHOD = new MethodLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_CLASS)
+            .withMethodName("register")
+            .withParameterTypes(DATA_WATCHER_OBJECT, Object.class)).load();
+
     public static final Method GET_DATA_WATCHER_METHOD = new MethodLoader(
         new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
             .withCategory(CacheCategory.PACKET)
@@ -676,6 +724,19 @@ public final class CacheRegistry {
             .withMethodName("fromStringOrNull")
             .withParameterTypes(String.class)).load();
 
+    public static final Method CRAFT_CHAT_MESSAGE_LINES_METHOD = new MethodLoader(
+        new TypeCache.CacheBuilder(CachePackage.CRAFT_BUKKIT)
+            .withClassName(CRAFT_CHAT_MESSAGE_CLASS)
+            .withMethodName("fromStringOrNull")
+            .withParameterTypes(String.class, boolean.class)).load();
+
+    public static final Method DATA_WATCHER_VALUE_CREATE_METHOD = new MethodLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_VALUE_CLASS)
+            .withMethodName("a")
+            .withParameterTypes(DATA_WATCHER_OBJECT, Object.class)).load();
+
     public static final Method GET_UNIQUE_ID_METHOD = new MethodLoader(
         new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
             .withClassName(ENTITY_CLASS)
@@ -705,6 +766,12 @@ public final class CacheRegistry {
             .withClassName("PacketPlayInUseEntity")
             .withFieldName("a")).load();
 
+    public static final Field PACKET_IN_USE_ENTITY_ACTION_FIELD = new FieldLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.PACKET)
+            .withClassName("PacketPlayInUseEntity")
+            .withFieldName("action")).load();
+
     public static final Field BUKKIT_COMMAND_MAP = new FieldLoader(
         new TypeCache.CacheBuilder(CachePackage.CRAFT_BUKKIT)
             .withClassName("CraftServer")
@@ -728,6 +795,24 @@ public final class CacheRegistry {
             .withClassName(DATA_WATCHER_REGISTRY)
             .withFieldName("a")).loadValue();
 
+    public static final Object DATA_WATCHER_STRING_SERIALIZER = new FieldLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_REGISTRY)
+            .withFieldName("d")).loadValue();
+
+    public static final Object DATA_WATCHER_OPTIONAL_CHAT_SERIALIZER = new FieldLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_REGISTRY)
+            .withFieldName("f")).loadValue();
+
+    public static final Object DATA_WATCHER_BOOLEAN_SERIALIZER = new FieldLoader(
+        new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
+            .withCategory(CacheCategory.SYNCHER)
+            .withClassName(DATA_WATCHER_REGISTRY)
+            .withFieldName(Utils.BUKKIT_VERSION > 12 ? "i" : "h")).loadValue();
+
     public static final Object ENUM_TAG_VISIBILITY_NEVER_FIELD = new FieldLoader(
         new TypeCache.CacheBuilder(CachePackage.MINECRAFT_SERVER)
             .withCategory(CacheCategory.PACKET)
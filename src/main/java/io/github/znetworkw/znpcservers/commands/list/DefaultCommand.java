@@ -10,8 +10,11 @@ import io.github.znetworkw.znpcservers.configuration.ConfigurationValue;
 import io.github.znetworkw.znpcservers.npc.*;
 import io.github.znetworkw.znpcservers.npc.conversation.Conversation;
 import io.github.znetworkw.znpcservers.npc.conversation.ConversationModel;
+import io.github.znetworkw.znpcservers.npc.task.NPCInteractTask;
+import io.github.znetworkw.znpcservers.npc.task.NPCSkinRefreshTask;
 import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
 import io.github.znetworkw.znpcservers.user.ZUser;
+import io.github.znetworkw.znpcservers.utility.location.ZLocation;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
@@ -19,11 +22,20 @@ import com.google.common.collect.Lists;
 import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Ints;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.github.znetworkw.znpcservers.npc.NPCPath.AbstractTypeWriter.AbstractTypeWriter;
 import static io.github.znetworkw.znpcservers.npc.NPCPath.AbstractTypeWriter.TypeWriter;
@@ -50,7 +62,7 @@ public class DefaultCommand extends Command {
                 Configuration.MESSAGES.sendMessage(sender, ConfigurationValue.CANT_GET_SKIN, skin);
                 return;
             }
-            npc.changeSkin(NPCSkin.forValues(skinValues));
+            npc.changeSkin(NPCSkin.forValues(skinValues), skin);
             Configuration.MESSAGES.sendMessage(sender, ConfigurationValue.GET_SKIN);
         });
 
@@ -162,6 +174,155 @@ public class DefaultCommand extends Command {
         }
     }
 
+    @CommandInformation(
+        arguments = {},
+        name = "stats",
+        permission = "znpcs.cmd.stats"
+    )
+    public void stats(CommandSender sender, Map<String, String> args) {
+        final long materializedNpcs = NPC.all().stream().filter(NPC::isMaterialized).count();
+        sender.sendMessage("&6&m------------------------------------------");
+        sender.sendMessage("&f&l * &aNPCs: &e" + NPC.all().size() + " &7(&e" + materializedNpcs + " &7materialized)");
+        sender.sendMessage("&f&l * &aDropped interactions: &e" + ZUser.getDroppedInteractions());
+        sender.sendMessage("&f&l * &aQueued interactions: &e" + NPCInteractTask.getQueueSize());
+        sender.sendMessage("&6&m------------------------------------------");
+    }
+
+    @CommandInformation(
+        arguments = {},
+        name = "skinrefresh",
+        permission = "znpcs.cmd.skinrefresh"
+    )
+    public void skinRefresh(CommandSender sender, Map<String, String> args) {
+        final int cursor = NPCSkinRefreshTask.getCursor();
+        final long checkedNpcs = NPC.all().stream().filter(npc -> npc.getNpcPojo().getId() <= cursor).count();
+        sender.sendMessage("&6&m------------------------------------------");
+        sender.sendMessage("&f&l * &aChecked NPCs: &e" + checkedNpcs + "&7/&e" + NPC.all().size());
+        sender.sendMessage("&f&l * &aRefreshed skins: &e" + NPCSkinRefreshTask.getRefreshedSkins());
+        sender.sendMessage("&f&l * &aFailed skins: &e" + NPCSkinRefreshTask.getFailedSkins());
+        sender.sendMessage("&6&m------------------------------------------");
+    }
+
+    @CommandInformation(
+        arguments = {"format"},
+        name = "storage",
+        permission = "znpcs.cmd.storage",
+        help = {
+            " &f&l* &e/znpcs storage binary",
+            " &f&l* &e/znpcs storage json",
+            "&8(Blocks the server while the files are written and read.)",
+            "&8(The memory shown is allocated in total by each load, not the peak heap.)"
+        }
+    )
+    public void storage(CommandSender sender, Map<String, String> args) {
+        final String format = args.get("format");
+        if (!"json".equalsIgnoreCase(format) && !"binary".equalsIgnoreCase(format)) {
+            Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.INCORRECT_USAGE);
+            return;
+        }
+        final boolean toBinary = "binary".equalsIgnoreCase(format);
+        sender.sendMessage("&6&m------------------------------------------");
+        try {
+            for (Configuration configuration : Configuration.SAVE_CONFIGURATIONS) {
+                // both files are written from the same values, the chosen format
+                // is written last so it is the newest file on the next start
+                for (boolean writeBinary : new boolean[]{!toBinary, toBinary}) {
+                    final Path convertedPath = configuration.convert(writeBinary);
+                    sender.sendMessage("&f&l * &aWrote &e" + convertedPath.getFileName() + " &7(&e" + Files.size(convertedPath) / 1024 + " KB&7)");
+                }
+                // compare the load of both formats
+                for (boolean fromBinary : new boolean[]{false, true}) {
+                    final long allocatedBytes = allocatedBytes();
+                    final long loadNanos = configuration.measureLoad(fromBinary);
+                    sender.sendMessage("&f&l   - &a" + configuration.getName() + (fromBinary ? " binary" : " json") + ": &e"
+                        + TimeUnit.NANOSECONDS.toMillis(loadNanos) + "ms&7, &e" + (allocatedBytes() - allocatedBytes) / 1024 + " KB &7allocated in total &8(not peak heap)");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.COMMAND_ERROR);
+            e.printStackTrace();
+        }
+        sender.sendMessage("&f&l * &aSet &eBINARY_STORAGE &aon config.json to load this format on the next start.");
+        sender.sendMessage("&6&m------------------------------------------");
+    }
+
+    @CommandInformation(
+        arguments = {"count"},
+        name = "loadbench",
+        permission = "znpcs.cmd.loadbench",
+        help = {
+            " &f&l* &e/znpcs loadbench 1000",
+            "&8(Loads the given amount of npcs at your location like the startup, then deletes them.)",
+            "&8(The npcs are not saved. Blocks the server while the npcs are loaded.)"
+        }
+    )
+    public void loadBench(CommandSender sender, Map<String, String> args) {
+        if (args.size() < 1) {
+            Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.INCORRECT_USAGE);
+            return;
+        }
+        final Integer count = Ints.tryParse(args.get("count"));
+        // the npcs use the ids after the highest id, so the loaded npcs are not replaced
+        final int firstId = NPC.all().stream().mapToInt(npc -> npc.getNpcPojo().getId()).max().orElse(0) + 1;
+        if (count == null || count < 1 || (long) firstId + count > Integer.MAX_VALUE) {
+            Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.INVALID_NUMBER);
+            return;
+        }
+        final Location location = sender.getPlayer().getLocation();
+        final List<NPC> npcs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            npcs.add(new NPC(new NPCModel(firstId + i)
+                .withHologramLines(Collections.singletonList("loadbench " + i))
+                .withLocation(new ZLocation(location))
+                .withNpcType(NPCType.PLAYER)));
+        }
+        sender.sendMessage("&6&m------------------------------------------");
+        // same steps as the npc loader
+        final long allocatedBytes = allocatedBytes();
+        final long startNanos = System.nanoTime();
+        int registered = 0;
+        try {
+            for (NPC npc : npcs) {
+                npc.prepare();
+            }
+            final long prepareNanos = System.nanoTime();
+            for (NPC npc : npcs) {
+                npc.register();
+                registered++;
+            }
+            final long endNanos = System.nanoTime();
+            sender.sendMessage("&f&l * &aLoaded &e" + registered + " &anpcs in &e" + TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos)
+                + "ms &7(prepare &e" + TimeUnit.NANOSECONDS.toMillis(prepareNanos - startNanos)
+                + "ms&7, register &e" + TimeUnit.NANOSECONDS.toMillis(endNanos - prepareNanos) + "ms&7)");
+            sender.sendMessage("&f&l * &e" + (allocatedBytes() - allocatedBytes) / 1024 + " KB &7allocated in total &8(not peak heap)");
+            if (ConfigurationConstants.IDLE_RELEASE_SECONDS > 0) {
+                sender.sendMessage("&f&l * &7The npcs were registered dormant &8(IDLE_RELEASE_SECONDS is enabled)");
+            }
+        } catch (RuntimeException e) {
+            Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.COMMAND_ERROR);
+            e.printStackTrace();
+        } finally {
+            for (NPC npc : npcs) {
+                if (NPC.find(npc.getNpcPojo().getId()) == npc) {
+                    NPC.unregister(npc.getNpcPojo().getId());
+                }
+            }
+        }
+        sender.sendMessage("&f&l * &aDeleted the &e" + registered + " &anpcs.");
+        sender.sendMessage("&6&m------------------------------------------");
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread since it started, or {@code 0} if the
+     * jvm does not support it. The difference of two calls is the total allocated in between,
+     * including the memory already collected, not the peak heap use.
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean instanceof com.sun.management.ThreadMXBean ?
+            ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
     @CommandInformation(
         arguments = {"id", "skin"},
         name = "skin",
@@ -227,6 +388,7 @@ public class DefaultCommand extends Command {
             sender.getPlayer().getInventory().getItemInHand());
         foundNPC.getPackets().flushCache("equipPackets");
         foundNPC.getViewers().forEach(foundNPC::sendEquipPackets);
+        NPCJournal.record(foundNPC.getNpcPojo());
         Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
     }
 
@@ -259,7 +421,8 @@ public class DefaultCommand extends Command {
         }
 
         foundNPC.getNpcPojo().setHologramLines(Lists.reverse(SPACE_SPLITTER.splitToList(args.get("lines"))));
-        foundNPC.getHologram().createHologram(); // update
+        foundNPC.getHologram().updateLines(); // update
+        NPCJournal.record(foundNPC.getNpcPojo());
         Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
     }
 
@@ -292,6 +455,7 @@ public class DefaultCommand extends Command {
         }
 
         foundNPC.setLocation(sender.getPlayer().getLocation(), true);
+        NPCJournal.record(foundNPC.getNpcPojo());
         Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
     }
 
@@ -331,6 +495,7 @@ public class DefaultCommand extends Command {
         }
 
         foundNPC.changeType(npcType);
+        NPCJournal.record(foundNPC.getNpcPojo());
         Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
     }
 
@@ -375,6 +540,7 @@ public class DefaultCommand extends Command {
             }
 
             foundNPC.getNpcPojo().getClickActions().add(new NPCAction(split.get(1).toUpperCase(), SPACE_JOINER.join(Iterables.skip(split, 2))));
+            NPCJournal.record(foundNPC.getNpcPojo());
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
         } else if (args.containsKey("remove")) {
             List<String> split = SPACE_SPLITTER.splitToList(args.get("remove"));
@@ -403,6 +569,7 @@ public class DefaultCommand extends Command {
                     return;
                 }
                 foundNPC.getNpcPojo().getClickActions().remove(actionId.intValue());
+                NPCJournal.record(foundNPC.getNpcPojo());
                 Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
             }
         } else if (args.containsKey("cooldown")) {
@@ -438,6 +605,7 @@ public class DefaultCommand extends Command {
                     return;
                 }
                 foundNPC.getNpcPojo().getClickActions().get(actionId).setDelay(actionDelay);
+                NPCJournal.record(foundNPC.getNpcPojo());
                 Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
             }
         } else if (args.containsKey("list")) {
@@ -497,6 +665,7 @@ public class DefaultCommand extends Command {
         } else {
             npcFunction.doRunFunction(foundNPC, new FunctionContext.DefaultContext(foundNPC));
         }
+        NPCJournal.record(foundNPC.getNpcPojo());
         Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
     }
 
@@ -543,6 +712,7 @@ public class DefaultCommand extends Command {
             final String[] values = Iterables.toArray(split, String.class);
             npcType.updateCustomization(foundNPC, methodName, values);
             foundNPC.getNpcPojo().getCustomizationMap().put(methodName, values);
+            NPCJournal.record(foundNPC.getNpcPojo());
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
         } else {
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.METHOD_NOT_FOUND);
@@ -596,6 +766,7 @@ public class DefaultCommand extends Command {
             }
 
             foundNPC.setPath(AbstractTypeWriter.find(split.get(1)));
+            NPCJournal.record(foundNPC.getNpcPojo());
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
         } else if (args.containsKey("create")) {
             String pathName = args.get("create");
@@ -699,7 +870,8 @@ public class DefaultCommand extends Command {
         }
 
         foundNPC.getNpcPojo().setHologramHeight(givenHeight);
-        foundNPC.getHologram().createHologram(); // Update hologram
+        foundNPC.getHologram().updateLines(); // Update hologram
+        NPCJournal.record(foundNPC.getNpcPojo());
         Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
     }
 
@@ -733,6 +905,7 @@ public class DefaultCommand extends Command {
                 return;
             }
             ConfigurationConstants.NPC_CONVERSATIONS.add(new Conversation(conversationName));
+            Configuration.CONVERSATIONS.markDirty();
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
         } else if (args.containsKey("remove")) {
             String conversationName = args.get("remove");
@@ -741,6 +914,7 @@ public class DefaultCommand extends Command {
                 return;
             }
             ConfigurationConstants.NPC_CONVERSATIONS.remove(Conversation.forName(conversationName));
+            Configuration.CONVERSATIONS.markDirty();
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
         } else if (args.containsKey("gui")) {
             sender.getPlayer().openInventory(new ConversationGUI(sender.getPlayer()).build());
@@ -766,6 +940,7 @@ public class DefaultCommand extends Command {
             } else {
                 foundNPC.getNpcPojo().setConversation(null);
             }
+            NPCJournal.record(foundNPC.getNpcPojo());
             Configuration.MESSAGES.sendMessage(sender.getCommandSender(), ConfigurationValue.SUCCESS);
         }
     }
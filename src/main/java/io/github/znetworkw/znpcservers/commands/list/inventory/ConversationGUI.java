@@ -98,6 +98,7 @@ public class ConversationGUI extends ZInventory {
                                         return;
                                     }
                                     conversation.setRadius(radius);
+                                    Configuration.CONVERSATIONS.markDirty();
                                     Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                 }).addConsumer(event -> openInventory());
                         } else if (clickEvent.isRightClick()) {
@@ -109,6 +110,7 @@ public class ConversationGUI extends ZInventory {
                                             return;
                                         }
                                         conversation.getTexts().add(new ConversationKey(event.getMessage()));
+                                        Configuration.CONVERSATIONS.markDirty();
                                         Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                     }
                                 ).addConsumer(event -> openInventory());
@@ -133,6 +135,7 @@ public class ConversationGUI extends ZInventory {
                                             return;
                                         }
                                         conversation.setDelay(cooldown);
+                                        Configuration.CONVERSATIONS.markDirty();
                                         Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                     }
                                 ).addConsumer(event -> openInventory());
@@ -193,6 +196,7 @@ public class ConversationGUI extends ZInventory {
                                     }
                                     String sound = event.getMessage().trim();
                                     conversationKey.setSoundName(sound);
+                                    Configuration.CONVERSATIONS.markDirty();
                                     Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                 }).addConsumer(event -> openInventory());
                         } else if (clickEvent.getClick() == ClickType.SHIFT_RIGHT) {
@@ -206,6 +210,7 @@ public class ConversationGUI extends ZInventory {
                                         }
                                         conversationKey.getLines().clear();
                                         conversationKey.getLines().addAll(SPACE_SPLITTER.splitToList(event.getMessage()));
+                                        Configuration.CONVERSATIONS.markDirty();
                                         Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                     }
                                 ).addConsumer(event -> openInventory());
@@ -230,11 +235,13 @@ public class ConversationGUI extends ZInventory {
                                             return;
                                         }
                                         Collections.swap(conversation.getTexts(), conversation.getTexts().indexOf(conversationKey), position);
+                                        Configuration.CONVERSATIONS.markDirty();
                                         Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                     }
                                 ).addConsumer(event -> openInventory());
                         } else if (clickEvent.isRightClick()) {
                             conversation.getTexts().remove(conversationKey);
+                            Configuration.CONVERSATIONS.markDirty();
                             Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                             // update gui
                             openInventory();
@@ -258,6 +265,7 @@ public class ConversationGUI extends ZInventory {
                                             return;
                                         }
                                         conversationKey.setDelay(delay);
+                                        Configuration.CONVERSATIONS.markDirty();
                                         Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                                     }
                                 ).addConsumer(event -> openInventory());
@@ -312,6 +320,7 @@ public class ConversationGUI extends ZInventory {
                     i, clickEvent -> {
                         if (clickEvent.isRightClick()) {
                             conversationKey.getActions().remove(znpcAction);
+                            Configuration.CONVERSATIONS.markDirty();
                             Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                             openInventory();
                         }
@@ -338,6 +347,7 @@ public class ConversationGUI extends ZInventory {
                                     return;
                                 }
                                 conversationKey.getActions().add(new NPCAction(stringList.get(0).toUpperCase(), SPACE_JOINER.join(Iterables.skip(stringList, 1))));
+                                Configuration.CONVERSATIONS.markDirty();
                                 Configuration.MESSAGES.sendMessage(getPlayer(), ConfigurationValue.SUCCESS);
                             }
                         ).addConsumer(event -> openInventory());
@@ -0,0 +1,913 @@
+package io.github.znetworkw.znpcservers.configuration;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.internal.Streams;
+import com.google.gson.internal.bind.JsonTreeReader;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A compact binary format for the configuration values.
+ * <p>
+ * The values are written as a stream of tagged json tokens, so they are written and read
+ * one token at a time like a json file, without a tree. Each string and object key is written
+ * the first time it is used and referenced by its index after that, the integers and lengths
+ * are written as varints, the arrays and objects end with {@link #END}. The format starts with
+ * {@link #MAGIC}, the format {@link #VERSION} and the flags, the content can be compressed with gzip.
+ * <p>
+ * The files of the {@link #TABLE_VERSION}, with the string table before the tree, are still read.
+ */
+public final class BinaryJson {
+    /** The first bytes of the format. */
+    private static final int MAGIC = 0x5A4E5043; // ZNPC
+    /** The current format version. */
+    private static final int VERSION = 2;
+    /** The first format version, with the string table before the tree and the sizes of the arrays and objects. */
+    private static final int TABLE_VERSION = 1;
+    /** The flag for the gzip compressed content. */
+    private static final int FLAG_GZIP = 1;
+    /** The maximum nesting of arrays and objects. */
+    private static final int MAX_DEPTH = 256;
+    /** The bytes of a string that are allocated before they are read. */
+    private static final int CHUNK_SIZE = 8192;
+
+    /** The value tags. */
+    private static final int NULL = 0, TRUE = 1, FALSE = 2, INTEGER = 3, DOUBLE = 4, STRING = 5, ARRAY = 6, OBJECT = 7, NUMBER = 8;
+    /** The tags of the current version, the end of an array or object and the strings written the first time. */
+    private static final int END = 9, NEW_STRING = 10, NEW_NUMBER = 11;
+
+    /**
+     * The text writer and reader given to the json writer and reader, the binary ones never use them.
+     * The gson map adapter reads the keys of a json reader through its private state, so the entries
+     * are parsed with {@link Streams#parse(JsonReader)} before they are converted, like the json files.
+     */
+    private static final Writer NO_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            throw new IOException("binary writer");
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    };
+    private static final Reader NO_READER = new Reader() {
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            throw new IOException("the binary reader only reads json tokens, parse the entry first");
+        }
+
+        @Override
+        public void close() {}
+    };
+
+    private BinaryJson() {}
+
+    /**
+     * Returns a json writer that writes the values on this format.
+     * <p>
+     * The values must be written with the returned writer and the writer closed,
+     * which writes the rest of the content but does not close the output stream.
+     *
+     * @param outputStream The output stream.
+     * @param gzip {@code true} To compress the content.
+     * @return The json writer.
+     * @throws IOException If the header could not be written.
+     */
+    public static JsonWriter newWriter(OutputStream outputStream,
+                                       boolean gzip) throws IOException {
+        final DataOutputStream header = new DataOutputStream(outputStream);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(gzip ? FLAG_GZIP : 0);
+        header.flush();
+        return new BinaryJsonWriter(gzip ? new GZIPOutputStream(outputStream, 8192) : new BufferedOutputStream(outputStream, 8192));
+    }
+
+    /**
+     * Returns a json reader that reads the values of this format.
+     * <p>
+     * The damaged content fails with a {@link MalformedJsonException}, or a
+     * {@link EOFException} if the content ends before the values.
+     *
+     * @param inputStream The input stream, not closed by this method.
+     * @return The json reader.
+     * @throws JsonParseException If the content is not in this format, uses a newer version or
+     *                            is damaged before the values.
+     */
+    public static JsonReader newReader(InputStream inputStream) {
+        try {
+            final DataInputStream header = new DataInputStream(inputStream);
+            if (header.readInt() != MAGIC) {
+                throw new JsonParseException("not a binary configuration");
+            }
+            final int version = header.readUnsignedByte();
+            if (version < TABLE_VERSION || version > VERSION) {
+                throw new JsonParseException("unsupported binary configuration version: " + version);
+            }
+            final int flags = header.readUnsignedByte();
+            final DataInputStream input = new DataInputStream(new DamageInputStream((flags & FLAG_GZIP) != 0 ?
+                new GZIPInputStream(inputStream, 8192) : new BufferedInputStream(inputStream, 8192)));
+            if (version == TABLE_VERSION) {
+                // read once, the next save writes the current version
+                return new JsonTreeReader(readTable(input));
+            }
+            return new BinaryJsonReader(input);
+        } catch (JsonParseException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // a damaged or truncated file
+            throw new JsonParseException("invalid binary configuration: " + e, e);
+        }
+    }
+
+    /**
+     * Reads a json tree.
+     *
+     * @param inputStream The input stream, not closed by this method.
+     * @return The json tree.
+     * @throws JsonParseException If the tree could not be read, the content is
+     *                            not in this format or uses a newer version.
+     */
+    public static JsonElement read(InputStream inputStream) {
+        try {
+            return Streams.parse(newReader(inputStream));
+        } catch (JsonParseException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new JsonParseException("invalid binary configuration: " + e, e);
+        }
+    }
+
+    /**
+     * Reads a json tree of the {@link #TABLE_VERSION}.
+     *
+     * @param input The content.
+     * @return The json tree.
+     * @throws IOException If the tree could not be read.
+     */
+    private static JsonElement readTable(DataInputStream input) throws IOException {
+        // the table is not allocated with the read size, a damaged size fails on the end of the content
+        final int stringCount = readVarInt(input);
+        final List<String> strings = new ArrayList<>(Math.min(stringCount, CHUNK_SIZE));
+        for (int i = 0; i < stringCount; i++) {
+            strings.add(new String(readBytes(input, readVarInt(input)), StandardCharsets.UTF_8));
+        }
+        return readElement(input, strings, 0);
+    }
+
+    /**
+     * Reads the given amount of bytes, the large amounts are read in chunks.
+     *
+     * @param input The input.
+     * @param length The amount of bytes.
+     * @return The bytes.
+     * @throws IOException If the bytes could not be read.
+     */
+    private static byte[] readBytes(DataInputStream input,
+                                    int length) throws IOException {
+        if (length <= CHUNK_SIZE) {
+            final byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            return bytes;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHUNK_SIZE);
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        for (int remaining = length; remaining > 0; ) {
+            final int chunkLength = Math.min(remaining, CHUNK_SIZE);
+            input.readFully(chunk, 0, chunkLength);
+            bytes.write(chunk, 0, chunkLength);
+            remaining -= chunkLength;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the string table entry for the next index.
+     *
+     * @param input The input.
+     * @param strings The string table.
+     * @return The string.
+     * @throws IOException If the index could not be read or is not on the table.
+     */
+    private static String readString(DataInputStream input,
+                                     List<String> strings) throws IOException {
+        final int index = readVarInt(input);
+        if (index >= strings.size()) {
+            throw new MalformedJsonException("invalid binary configuration string: " + index);
+        }
+        return strings.get(index);
+    }
+
+    /**
+     * Reads a json tree of the {@link #TABLE_VERSION}.
+     *
+     * @param input The input.
+     * @param strings The string table.
+     * @param depth The nesting of the tree.
+     * @return The json tree.
+     * @throws IOException If the tree could not be read.
+     */
+    private static JsonElement readElement(DataInputStream input,
+                                           List<String> strings,
+                                           int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new MalformedJsonException("invalid binary configuration depth");
+        }
+        final int tag = input.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            case INTEGER:
+                return new JsonPrimitive(readZigZag(input));
+            case DOUBLE:
+                return new JsonPrimitive(input.readDouble());
+            case STRING:
+                return new JsonPrimitive(readString(input, strings));
+            case NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(readString(input, strings)));
+            case ARRAY:
+                final int arraySize = readVarInt(input);
+                final JsonArray array = new JsonArray();
+                for (int i = 0; i < arraySize; i++) {
+                    array.add(readElement(input, strings, depth + 1));
+                }
+                return array;
+            case OBJECT:
+                final int objectSize = readVarInt(input);
+                final JsonObject object = new JsonObject();
+                for (int i = 0; i < objectSize; i++) {
+                    final String key = readString(input, strings);
+                    object.add(key, readElement(input, strings, depth + 1));
+                }
+                return object;
+            default:
+                throw new MalformedJsonException("invalid binary configuration tag: " + tag);
+        }
+    }
+
+    /**
+     * Writes a unsigned varint.
+     */
+    private static void writeVarInt(DataOutputStream output,
+                                    int value) throws IOException {
+        writeVarLong(output, value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a unsigned varlong.
+     */
+    private static void writeVarLong(DataOutputStream output,
+                                     long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    /**
+     * Reads a unsigned varint.
+     */
+    private static int readVarInt(DataInputStream input) throws IOException {
+        final long value = readVarLong(input);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new MalformedJsonException("invalid binary configuration length: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a unsigned varlong.
+     */
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new MalformedJsonException("invalid binary configuration varint");
+    }
+
+    /**
+     * Reads a signed varlong, written with the zigzag encoding.
+     */
+    private static long readZigZag(DataInputStream input) throws IOException {
+        final long value = readVarLong(input);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * An input stream that reports the read errors of the content, like the
+     * damaged gzip data, as {@link MalformedJsonException}.
+     */
+    private static final class DamageInputStream extends FilterInputStream {
+        DamageInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (MalformedJsonException | EOFException e) {
+                throw e;
+            } catch (IOException e) {
+                throw damaged(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            try {
+                return super.read(bytes, offset, length);
+            } catch (MalformedJsonException | EOFException e) {
+                throw e;
+            } catch (IOException e) {
+                throw damaged(e);
+            }
+        }
+
+        private static MalformedJsonException damaged(IOException cause) {
+            final MalformedJsonException exception = new MalformedJsonException("invalid binary configuration: " + cause);
+            exception.initCause(cause);
+            return exception;
+        }
+    }
+
+    /**
+     * Writes the json tokens on the current version.
+     */
+    private static final class BinaryJsonWriter extends JsonWriter {
+        /** The content stream, finished when the writer is closed. */
+        private final OutputStream contentStream;
+        /** The content. */
+        private final DataOutputStream output;
+        /** The indexes of the written strings. */
+        private final Map<String, Integer> strings = new HashMap<>();
+        /** The object key that is written with the next value, or {@code null}. */
+        private String deferredName;
+
+        BinaryJsonWriter(OutputStream contentStream) {
+            super(NO_WRITER);
+            this.contentStream = contentStream;
+            this.output = new DataOutputStream(contentStream);
+        }
+
+        @Override
+        public JsonWriter beginArray() throws IOException {
+            writeDeferredName();
+            output.writeByte(ARRAY);
+            return this;
+        }
+
+        @Override
+        public JsonWriter endArray() throws IOException {
+            output.writeByte(END);
+            return this;
+        }
+
+        @Override
+        public JsonWriter beginObject() throws IOException {
+            writeDeferredName();
+            output.writeByte(OBJECT);
+            return this;
+        }
+
+        @Override
+        public JsonWriter endObject() throws IOException {
+            output.writeByte(END);
+            return this;
+        }
+
+        @Override
+        public JsonWriter name(String name) {
+            if (name == null) {
+                throw new NullPointerException("name == null");
+            }
+            if (deferredName != null) {
+                throw new IllegalStateException("name without value: " + deferredName);
+            }
+            deferredName = name;
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(String value) throws IOException {
+            if (value == null) {
+                return nullValue();
+            }
+            writeDeferredName();
+            writeString(STRING, NEW_STRING, value);
+            return this;
+        }
+
+        @Override
+        public JsonWriter nullValue() throws IOException {
+            if (deferredName != null) {
+                if (!getSerializeNulls()) {
+                    deferredName = null; // the null entries are skipped, like the json writer
+                    return this;
+                }
+                writeDeferredName();
+            }
+            output.writeByte(NULL);
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(boolean value) throws IOException {
+            writeDeferredName();
+            output.writeByte(value ? TRUE : FALSE);
+            return this;
+        }
+
+        // not an override on the older gson versions
+        public JsonWriter value(Boolean value) throws IOException {
+            return value == null ? nullValue() : value(value.booleanValue());
+        }
+
+        // not an override on the older gson versions
+        public JsonWriter value(float value) throws IOException {
+            return value((Number) value);
+        }
+
+        @Override
+        public JsonWriter value(double value) throws IOException {
+            writeDeferredName();
+            output.writeByte(DOUBLE);
+            output.writeDouble(value);
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(long value) throws IOException {
+            writeDeferredName();
+            output.writeByte(INTEGER);
+            writeVarLong(output, (value << 1) ^ (value >> 63)); // zigzag
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(Number value) throws IOException {
+            if (value == null) {
+                return nullValue();
+            }
+            if (value instanceof Double) {
+                return value(value.doubleValue());
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return value(value.longValue());
+            }
+            // the floats and parsed numbers keep their text
+            final String text = value.toString();
+            try {
+                return value(Long.parseLong(text));
+            } catch (NumberFormatException e) {
+                try {
+                    final double doubleValue = Double.parseDouble(text);
+                    if (Double.toString(doubleValue).equals(text)) {
+                        return value(doubleValue);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // written as text
+                }
+            }
+            writeDeferredName();
+            writeString(NUMBER, NEW_NUMBER, text);
+            return this;
+        }
+
+        // not an override on the older gson versions
+        public JsonWriter jsonValue(String value) {
+            throw new UnsupportedOperationException("raw json values cannot be written on the binary format");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output.flush();
+        }
+
+        /**
+         * Writes the rest of the content, the output stream is not closed.
+         */
+        @Override
+        public void close() throws IOException {
+            output.flush();
+            if (contentStream instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) contentStream).finish();
+            }
+        }
+
+        /**
+         * Writes the object key of the next value.
+         */
+        private void writeDeferredName() throws IOException {
+            if (deferredName != null) {
+                writeString(STRING, NEW_STRING, deferredName);
+                deferredName = null;
+            }
+        }
+
+        /**
+         * Writes the index of the given string, or the string if it is written the first time.
+         *
+         * @param tag The tag of the written string.
+         * @param newTag The tag of the string written the first time.
+         * @param string The string.
+         * @throws IOException If the string could not be written.
+         */
+        private void writeString(int tag,
+                                 int newTag,
+                                 String string) throws IOException {
+            final Integer index = strings.get(string);
+            if (index != null) {
+                output.writeByte(tag);
+                writeVarInt(output, index);
+                return;
+            }
+            strings.put(string, strings.size());
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeByte(newTag);
+            writeVarInt(output, bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the json tokens of the current version.
+     */
+    private static final class BinaryJsonReader extends JsonReader {
+        /** The tag that is not read yet. */
+        private static final int NO_TAG = -1;
+
+        /** The content. */
+        private final DataInputStream input;
+        /** The read strings, by their index. */
+        private final List<String> strings = new ArrayList<>();
+        /** The open arrays and objects, {@code true} for the objects. */
+        private boolean[] stack = new boolean[16];
+        /** The amount of open arrays and objects. */
+        private int stackSize;
+        /** {@code true} If the innermost object expects a key. */
+        private boolean expectName;
+        /** {@code true} If the top value was read. */
+        private boolean documentRead;
+        /** The read tag of the next token, or {@link #NO_TAG}. */
+        private int peekedTag = NO_TAG;
+
+        BinaryJsonReader(DataInputStream input) {
+            super(NO_READER);
+            this.input = input;
+        }
+
+        @Override
+        public JsonToken peek() throws IOException {
+            if (peekedTag == NO_TAG) {
+                if (stackSize == 0 && documentRead) {
+                    return JsonToken.END_DOCUMENT;
+                }
+                peekedTag = input.readUnsignedByte();
+            }
+            final boolean inObject = stackSize > 0 && stack[stackSize - 1];
+            if (inObject && expectName) {
+                switch (peekedTag) {
+                    case END:
+                        return JsonToken.END_OBJECT;
+                    case STRING:
+                    case NEW_STRING:
+                        return JsonToken.NAME;
+                    default:
+                        throw new MalformedJsonException("invalid binary configuration key tag: " + peekedTag);
+                }
+            }
+            switch (peekedTag) {
+                case NULL:
+                    return JsonToken.NULL;
+                case TRUE:
+                case FALSE:
+                    return JsonToken.BOOLEAN;
+                case INTEGER:
+                case DOUBLE:
+                case NUMBER:
+                case NEW_NUMBER:
+                    return JsonToken.NUMBER;
+                case STRING:
+                case NEW_STRING:
+                    return JsonToken.STRING;
+                case ARRAY:
+                    return JsonToken.BEGIN_ARRAY;
+                case OBJECT:
+                    return JsonToken.BEGIN_OBJECT;
+                case END:
+                    if (stackSize > 0 && !inObject) {
+                        return JsonToken.END_ARRAY;
+                    }
+                    // an object without the value of the last key
+                default:
+                    throw new MalformedJsonException("invalid binary configuration tag: " + peekedTag);
+            }
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            final JsonToken token = peek();
+            return token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT && token != JsonToken.END_DOCUMENT;
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            expect(JsonToken.BEGIN_ARRAY);
+            push(false);
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            expect(JsonToken.END_ARRAY);
+            stackSize--;
+            valueRead();
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            expect(JsonToken.BEGIN_OBJECT);
+            push(true);
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            expect(JsonToken.END_OBJECT);
+            stackSize--;
+            valueRead();
+        }
+
+        @Override
+        public String nextName() throws IOException {
+            expect(JsonToken.NAME);
+            final String name = readTagString();
+            peekedTag = NO_TAG;
+            expectName = false;
+            return name;
+        }
+
+        @Override
+        public String nextString() throws IOException {
+            final JsonToken token = peek();
+            final String value;
+            if (token == JsonToken.STRING) {
+                value = readTagString();
+            } else if (token == JsonToken.NUMBER) {
+                if (peekedTag == INTEGER) {
+                    value = Long.toString(readZigZag(input));
+                } else if (peekedTag == DOUBLE) {
+                    value = Double.toString(input.readDouble());
+                } else {
+                    value = readTagString();
+                }
+            } else {
+                throw unexpected(JsonToken.STRING, token);
+            }
+            valueRead();
+            return value;
+        }
+
+        @Override
+        public boolean nextBoolean() throws IOException {
+            expect(JsonToken.BOOLEAN);
+            final boolean value = peekedTag == TRUE;
+            valueRead();
+            return value;
+        }
+
+        @Override
+        public void nextNull() throws IOException {
+            expect(JsonToken.NULL);
+            valueRead();
+        }
+
+        @Override
+        public double nextDouble() throws IOException {
+            final JsonToken token = peek();
+            final double value;
+            if (token == JsonToken.NUMBER && peekedTag == INTEGER) {
+                value = readZigZag(input);
+            } else if (token == JsonToken.NUMBER && peekedTag == DOUBLE) {
+                value = input.readDouble();
+            } else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+                value = Double.parseDouble(readTagString());
+            } else {
+                throw unexpected(JsonToken.NUMBER, token);
+            }
+            valueRead();
+            return value;
+        }
+
+        @Override
+        public long nextLong() throws IOException {
+            final JsonToken token = peek();
+            final long value;
+            if (token == JsonToken.NUMBER && peekedTag == INTEGER) {
+                value = readZigZag(input);
+            } else if (token == JsonToken.NUMBER && peekedTag == DOUBLE) {
+                value = exactLong(input.readDouble());
+            } else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+                final String text = readTagString();
+                long parsed;
+                try {
+                    parsed = Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    parsed = exactLong(Double.parseDouble(text));
+                }
+                value = parsed;
+            } else {
+                throw unexpected(JsonToken.NUMBER, token);
+            }
+            valueRead();
+            return value;
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            final long value = nextLong();
+            if ((int) value != value) {
+                throw new NumberFormatException("Expected an int but was " + value);
+            }
+            return (int) value;
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            int depth = 0;
+            do {
+                final JsonToken token = peek();
+                switch (token) {
+                    case BEGIN_ARRAY:
+                        beginArray();
+                        depth++;
+                        break;
+                    case BEGIN_OBJECT:
+                        beginObject();
+                        depth++;
+                        break;
+                    case END_ARRAY:
+                    case END_OBJECT:
+                        if (depth == 0) {
+                            throw unexpected(JsonToken.NULL, token);
+                        }
+                        if (token == JsonToken.END_ARRAY) {
+                            endArray();
+                        } else {
+                            endObject();
+                        }
+                        depth--;
+                        break;
+                    case NAME:
+                        nextName();
+                        break;
+                    case BOOLEAN:
+                        nextBoolean();
+                        break;
+                    case NULL:
+                        nextNull();
+                        break;
+                    case END_DOCUMENT:
+                        return;
+                    default:
+                        nextString();
+                }
+            } while (depth != 0);
+        }
+
+        /**
+         * The content stream is closed by the caller.
+         */
+        @Override
+        public void close() {
+            peekedTag = NO_TAG;
+            stackSize = 0;
+            documentRead = true;
+        }
+
+        @Override
+        public String toString() {
+            return "BinaryJsonReader at depth " + stackSize;
+        }
+
+        /**
+         * Checks that the next token is the given token.
+         *
+         * @param token The expected token.
+         * @throws IOException If the next token is another token.
+         */
+        private void expect(JsonToken token) throws IOException {
+            final JsonToken peeked = peek();
+            if (peeked != token) {
+                throw unexpected(token, peeked);
+            }
+        }
+
+        /**
+         * Returns the error for an unexpected token, the tokens that the
+         * configuration does not expect are damaged content.
+         */
+        private MalformedJsonException unexpected(JsonToken expected,
+                                                  JsonToken token) {
+            return new MalformedJsonException("Expected " + expected + " but was " + token + " at " + this);
+        }
+
+        /**
+         * Opens an array or object.
+         *
+         * @param object {@code true} For an object.
+         * @throws IOException If the content is nested too deep.
+         */
+        private void push(boolean object) throws IOException {
+            if (stackSize == MAX_DEPTH) {
+                throw new MalformedJsonException("invalid binary configuration depth");
+            }
+            if (stackSize == stack.length) {
+                stack = Arrays.copyOf(stack, stackSize * 2);
+            }
+            stack[stackSize++] = object;
+            expectName = object;
+            peekedTag = NO_TAG;
+        }
+
+        /**
+         * Marks the current value as read.
+         */
+        private void valueRead() {
+            peekedTag = NO_TAG;
+            if (stackSize == 0) {
+                documentRead = true;
+            } else if (stack[stackSize - 1]) {
+                expectName = true;
+            }
+        }
+
+        /**
+         * Reads the string of the peeked tag, adding it to the read strings if it is read the first time.
+         *
+         * @return The string.
+         * @throws IOException If the string could not be read.
+         */
+        private String readTagString() throws IOException {
+            if (peekedTag == NEW_STRING || peekedTag == NEW_NUMBER) {
+                final String string = new String(readBytes(input, readVarInt(input)), StandardCharsets.UTF_8);
+                strings.add(string);
+                return string;
+            }
+            return readString(input, strings);
+        }
+
+        /**
+         * Returns the given number as a long.
+         *
+         * @throws NumberFormatException If the number has a fraction or does not fit.
+         */
+        private static long exactLong(double value) {
+            final long longValue = (long) value;
+            if (longValue != value) {
+                throw new NumberFormatException("Expected a long but was " + value);
+            }
+            return longValue;
+        }
+    }
+}
@@ -4,19 +4,48 @@ import io.github.znetworkw.znpcservers.ServersNPC;
 import io.github.znetworkw.znpcservers.utility.Utils;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.internal.$Gson$Types;
+import com.google.gson.internal.Streams;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import org.bukkit.command.CommandSender;
 
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +55,9 @@ public class Configuration {
     /** The configuration format. */
     static final String CONFIG_FORMAT = ".json";
 
+    /** The binary configuration format. */
+    static final String BINARY_FORMAT = ".bin";
+
     /**
      * Creates a new parser.
      */
@@ -36,6 +68,25 @@ public class Configuration {
      */
     private static final Charset CHARSET = StandardCharsets.UTF_8;
 
+    /**
+     * The thread that writes the configurations saved with {@link #saveAsync()}.
+     */
+    private static final ExecutorService SAVE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "znpcs-configuration-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The logger instance.
+     */
+    private static final Logger LOGGER = Logger.getLogger(Configuration.class.getName());
+
+    /**
+     * The corrupt entries skipped by the current load, see {@link #skippedEntry()}.
+     */
+    private static final AtomicInteger SKIPPED_ENTRIES = new AtomicInteger();
+
     /**
      * The configuration name.
      */
@@ -46,11 +97,36 @@ public class Configuration {
      */
     private final Path path;
 
+    /**
+     * The binary configuration path.
+     */
+    private final Path binaryPath;
+
+    /**
+     * {@code true} If the configuration is saved on the {@link BinaryJson} format.
+     */
+    private final boolean binary;
+
     /**
      * A map that contains the configuration values.
      */
     private final Map<ConfigurationValue, Object> configurationValues;
 
+    /**
+     * The configuration changes, increased by {@link #markDirty()}.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The {@link #version} of the last save.
+     */
+    private long savedVersion = -1;
+
+    /**
+     * The last write started by {@link #saveAsync()}.
+     */
+    private CompletableFuture<Void> lastSave = CompletableFuture.completedFuture(null);
+
     public static final Configuration CONFIGURATION = new Configuration("config");
     public static final Configuration MESSAGES = new Configuration("messages");
     public static final Configuration CONVERSATIONS = new Configuration("conversations");
@@ -81,61 +157,462 @@ public class Configuration {
         }
         this.name = name;
         this.path = path;
+        this.binaryPath = path.resolveSibling(name + BINARY_FORMAT);
         configurationValues = ConfigurationValue.VALUES_BY_NAME.get(name)
                 .stream()
                 .collect(Collectors.toMap(c -> c, ConfigurationValue::getValue));
+        // only the lists (npcs & conversations) can be saved as binary
+        this.binary = configurationValues.size() == 1
+            && CONFIGURATION != null
+            && CONFIGURATION.<Boolean>getValue(ConfigurationValue.BINARY_STORAGE);
         onLoad();
     }
 
     /**
      * Loads the configuration. Called when creating a new {@link Configuration}.
+     * <p>
+     * The configuration is read from the newest of the json and binary files,
+     * and is saved on the configured format. A file that cannot be parsed is
+     * kept with the {@code .corrupt} extension before the default values are saved,
+     * and a file with skipped corrupt entries is copied with the {@code .corrupt}
+     * extension before it is saved without them. Nothing is saved if the file
+     * cannot be read or kept.
+     *
+     * @throws IllegalStateException If the file cannot be read or kept.
      */
     protected void onLoad() {
         synchronized (path) {
-            try (Reader reader = Files.newBufferedReader(path, CHARSET)) {
-                JsonElement data = JSON_PARSER.parse(reader);
-                if (data == null) {
-                    return;
-                }
-                for (ConfigurationValue configValue : configurationValues.keySet()) {
-                    boolean single = configurationValues.size() == 1;
-                    JsonElement jsonElement = single ?
-                            data : data.isJsonObject() ?
-                            data.getAsJsonObject().get(configValue.name()) : null;
-                    if (jsonElement != null && !jsonElement.isJsonNull()) {
-                        if (!single && configValue.getPrimitiveType().isEnum()) {
-                            configurationValues.put(configValue, ServersNPC.GSON.fromJson(jsonElement, configValue.getPrimitiveType()));
-                        } else {
-                            configurationValues.put(configValue, ServersNPC.GSON.fromJson(jsonElement,
-                                    $Gson$Types.newParameterizedTypeWithOwner(null, configValue.getValue().getClass(), configValue.getPrimitiveType())));
-                        }
+            Path source = null;
+            try {
+                source = findSource();
+                if (source != null) {
+                    final long startTime = System.nanoTime();
+                    SKIPPED_ENTRIES.set(0);
+                    load(source);
+                    if (configurationValues.size() == 1) {
+                        LOGGER.info(String.format("Loaded %s in %dms (%d KB)", source.getFileName(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), Files.size(source) / 1024));
+                    }
+                    if (SKIPPED_ENTRIES.get() > 0 && !keepSkipped(source, SKIPPED_ENTRIES.get())) {
+                        return;
                     }
                 }
-            } catch (NoSuchFileException e) {
-                // file not found, create the configuration with
+                // else file not found, create the configuration with
                 // the default provided values.
+            } catch (JsonParseException | MalformedJsonException | EOFException e) {
+                keepCorrupted(source, e);
             } catch (IOException e) {
-                throw new IllegalStateException("Failed to read config: " + name);
-            } finally {
-                save(); // save configuration to file
+                throw new IllegalStateException("Failed to read config: " + name, e);
+            }
+            save(); // save configuration to file
+        }
+    }
+
+    /**
+     * Returns the newest configuration file, or {@code null} if the configuration was not saved yet.
+     *
+     * @throws IOException If the files cannot be accessed.
+     */
+    private Path findSource() throws IOException {
+        final boolean jsonExists = Files.exists(path);
+        final boolean binaryExists = Files.exists(binaryPath);
+        if (jsonExists && binaryExists) {
+            return Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(path)) > 0 ? binaryPath : path;
+        }
+        return binaryExists ? binaryPath : jsonExists ? path : null;
+    }
+
+    /**
+     * Renames the given file so it is not replaced by the default values.
+     *
+     * @param source The file that could not be parsed.
+     * @param exception The parse error.
+     * @throws IllegalStateException If the file could not be renamed.
+     */
+    private void keepCorrupted(Path source, Exception exception) {
+        final Path corruptedPath = source.resolveSibling(source.getFileName() + ".corrupt");
+        try {
+            Files.move(source, corruptedPath, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.log(Level.SEVERE, "Failed to parse config: " + name + ", the file was renamed to " + corruptedPath.getFileName(), exception);
+        } catch (IOException e) {
+            e.addSuppressed(exception);
+            // the file is not replaced by the default values
+            throw new IllegalStateException("Failed to parse config: " + name + " and the file could not be renamed", e);
+        }
+    }
+
+    /**
+     * Copies the given file before it is saved without its skipped entries.
+     *
+     * @param source The file with skipped entries.
+     * @param skippedEntries The amount of skipped entries.
+     * @return {@code true} If the file was copied and can be saved.
+     */
+    private boolean keepSkipped(Path source, int skippedEntries) {
+        final Path corruptedPath = source.resolveSibling(source.getFileName() + ".corrupt");
+        try {
+            Files.copy(source, corruptedPath, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.warning(String.format("Skipped %d corrupt entries of %s, the original file was copied to %s",
+                skippedEntries, name, corruptedPath.getFileName()));
+            return true;
+        } catch (IOException e) {
+            // the file is not saved without the skipped entries
+            LOGGER.log(Level.SEVERE, "Skipped " + skippedEntries + " corrupt entries of " + name
+                + " and the original file could not be copied, the file is not saved", e);
+            return false;
+        }
+    }
+
+    /**
+     * Counts a corrupt entry that was skipped while loading a configuration, so the
+     * original file is kept before it is saved without the entry.
+     * Called by the type adapters that skip their corrupt entries.
+     */
+    public static void skippedEntry() {
+        SKIPPED_ENTRIES.incrementAndGet();
+    }
+
+    /**
+     * Sets the configuration values from the given file.
+     *
+     * @param source The json or binary configuration file.
+     * @throws IOException If the file cannot be read.
+     */
+    private void load(Path source) throws IOException {
+        if (configurationValues.size() != 1) {
+            bind(readTree(source));
+            return;
+        }
+        final ConfigurationValue configValue = configurationValues.keySet().iterator().next();
+        final Object value = readList(source, configValue);
+        if (value != null) {
+            configurationValues.put(configValue, value);
+        }
+    }
+
+    /**
+     * Reads the configuration tree from the given file.
+     *
+     * @param source The json or binary configuration file.
+     * @return The configuration tree.
+     * @throws IOException If the file cannot be read.
+     */
+    private JsonElement readTree(Path source) throws IOException {
+        if (source.equals(binaryPath)) {
+            try (InputStream inputStream = Files.newInputStream(binaryPath)) {
+                return BinaryJson.read(inputStream);
+            }
+        }
+        try (Reader reader = Files.newBufferedReader(path, CHARSET)) {
+            return JSON_PARSER.parse(reader);
+        }
+    }
+
+    /**
+     * Reads the list value of a single-value configuration from the given file.
+     *
+     * @param source The json or binary configuration file.
+     * @param configValue The configuration value.
+     * @return The list, or {@code null} if the file is empty.
+     * @throws IOException If the file cannot be read.
+     */
+    private Object readList(Path source,
+                            ConfigurationValue configValue) throws IOException {
+        if (source.equals(binaryPath)) {
+            try (InputStream inputStream = Files.newInputStream(binaryPath)) {
+                return readList(BinaryJson.newReader(inputStream), configValue);
+            }
+        }
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, CHARSET))) {
+            return readList(reader, configValue);
+        }
+    }
+
+    /**
+     * Reads the list value of a single-value configuration entry by entry,
+     * only one entry is kept as a tree at a time. The entries that cannot
+     * be converted to the value type are logged and skipped.
+     *
+     * @param reader The reader.
+     * @param configValue The configuration value.
+     * @return The list, or {@code null} if the content is empty.
+     * @throws IOException If the content cannot be read.
+     */
+    private Object readList(JsonReader reader,
+                            ConfigurationValue configValue) throws IOException {
+        reader.setLenient(true);
+        final JsonToken token;
+        try {
+            token = reader.peek();
+        } catch (EOFException e) {
+            return null; // empty file
+        }
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token != JsonToken.BEGIN_ARRAY) {
+            // lists saved with their own format, like the npcs with their skin table
+            return ServersNPC.GSON.getAdapter(TypeToken.get(valueType(configValue))).read(reader);
+        }
+        final List<Object> values = new ArrayList<>();
+        reader.beginArray();
+        for (int index = 0; reader.hasNext(); index++) {
+            final JsonElement entry = Streams.parse(reader);
+            try {
+                values.add(ServersNPC.GSON.fromJson(entry, configValue.getPrimitiveType()));
+            } catch (RuntimeException e) {
+                LOGGER.warning(String.format("Skipping corrupt entry %d of %s: %s", index, name, e));
+                skippedEntry();
+            }
+        }
+        reader.endArray();
+        return values;
+    }
+
+    /**
+     * Sets the configuration values from the given tree.
+     *
+     * @param data The configuration tree.
+     */
+    private void bind(JsonElement data) {
+        if (data == null) {
+            return;
+        }
+        for (ConfigurationValue configValue : configurationValues.keySet()) {
+            boolean single = configurationValues.size() == 1;
+            JsonElement jsonElement = single ?
+                    data : data.isJsonObject() ?
+                    data.getAsJsonObject().get(configValue.name()) : null;
+            if (jsonElement != null && !jsonElement.isJsonNull()) {
+                if (!single && configValue.getPrimitiveType().isEnum()) {
+                    configurationValues.put(configValue, ServersNPC.GSON.fromJson(jsonElement, configValue.getPrimitiveType()));
+                } else {
+                    configurationValues.put(configValue, ServersNPC.GSON.fromJson(jsonElement, valueType(configValue)));
+                }
             }
         }
     }
 
     /**
-     * Writes the configuration values into the file.
+     * Writes the configuration values on the given format, without changing the configured format.
+     *
+     * @param toBinary {@code true} To write the binary file, {@code false} to write the json file.
+     * @return The written file.
+     * @throws IllegalStateException If the values could not be written.
+     */
+    public Path convert(boolean toBinary) {
+        write(null, toBinary);
+        return toBinary ? binaryPath : path;
+    }
+
+    /**
+     * Reads the json or binary file of the configuration without changing the loaded values.
+     *
+     * @param fromBinary {@code true} To read the binary file, {@code false} to read the json file.
+     * @return The time it took to read and bind the values, in nanoseconds.
+     * @throws IOException If the file cannot be read.
+     */
+    public long measureLoad(boolean fromBinary) throws IOException {
+        final long startTime = System.nanoTime();
+        final Path source = fromBinary ? binaryPath : path;
+        if (configurationValues.size() == 1) {
+            readList(source, configurationValues.keySet().iterator().next());
+        } else {
+            readTree(source);
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Returns the configuration name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marks the configuration as changed, so it is written on the next {@link #saveAsync()}.
+     * Can be called from any thread.
+     */
+    public void markDirty() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Writes the configuration values into the file, entry by entry.
      */
     public void save() {
-        synchronized (path) {
-            try (Writer writer = Files.newBufferedWriter(path, CHARSET)) {
-                ServersNPC.GSON.toJson(configurationValues.size() == 1 ?
-                        configurationValues.values().iterator().next() : configurationValues, writer);
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to save config: " + name);
+        final long currentVersion = version.get();
+        write(null, binary);
+        savedVersion = currentVersion;
+        lastSave = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Writes the configuration values into the file on a background thread,
+     * if the configuration changed since the last save. Must be called on the main thread.
+     * <p>
+     * The values are copied on the calling thread, the copy is serialized
+     * by the save thread straight into the file.
+     *
+     * @return A future completed when the file contains the current values, or
+     *         completed exceptionally if the values could not be written.
+     */
+    public CompletableFuture<Void> saveAsync() {
+        final long currentVersion = version.get();
+        if (currentVersion == savedVersion) {
+            return lastSave; // nothing changed, the last save has the current values
+        }
+        final Object values = copyValues();
+        savedVersion = currentVersion;
+        final CompletableFuture<Void> save = new CompletableFuture<>();
+        lastSave = save;
+        SAVE_EXECUTOR.execute(() -> {
+            try {
+                write(values, binary);
+                save.complete(null);
+            } catch (IllegalStateException e) {
+                LOGGER.log(Level.WARNING, e.getMessage(), e.getCause());
+                markDirty(); // try again on the next save
+                save.completeExceptionally(e);
+            }
+        });
+        return save;
+    }
+
+    /**
+     * Waits for the configurations being written by {@link #saveAsync()}, called when the plugin is disabled.
+     */
+    public static void awaitSaves() {
+        SAVE_EXECUTOR.shutdown();
+        try {
+            if (!SAVE_EXECUTOR.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warning("timed out waiting for the configurations to be saved");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a copy of the configuration values, that is not modified by later changes.
+     * <p>
+     * The list entries are copied with {@link Copyable#copy()}, which is much cheaper
+     * than serializing them, the other entries are shared.
+     */
+    private Object copyValues() {
+        if (configurationValues.size() != 1) {
+            return new HashMap<>(configurationValues);
+        }
+        final Object value = configurationValues.values().iterator().next();
+        if (!(value instanceof Collection)) {
+            return value;
+        }
+        final Collection<?> entries = (Collection<?>) value;
+        final List<Object> copy = new ArrayList<>(entries.size());
+        for (Object entry : entries) {
+            copy.add(entry instanceof Copyable ? ((Copyable<?>) entry).copy() : entry);
+        }
+        return copy;
+    }
+
+    /**
+     * Serializes the given configuration values into the given stream.
+     * <p>
+     * Both formats are written entry by entry without building a tree.
+     *
+     * @param outputStream The output stream, not closed by this method.
+     * @param values The configuration values or their copy.
+     * @param toBinary {@code true} To write the binary format, {@code false} to write json.
+     * @throws IOException If the values could not be written.
+     */
+    private void writeValues(OutputStream outputStream,
+                             Object values,
+                             boolean toBinary) throws IOException {
+        final Type valuesType = configurationValues.size() == 1 ?
+            valueType(configurationValues.keySet().iterator().next()) : configurationValues.getClass();
+        final JsonWriter jsonWriter;
+        if (toBinary) {
+            jsonWriter = BinaryJson.newWriter(outputStream, CONFIGURATION.<Boolean>getValue(ConfigurationValue.BINARY_STORAGE_GZIP));
+        } else {
+            jsonWriter = new JsonWriter(new OutputStreamWriter(outputStream, CHARSET));
+            jsonWriter.setIndent("  "); // same as the pretty printing of the gson instance
+        }
+        try {
+            ServersNPC.GSON.toJson(values, valuesType, jsonWriter);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        if (toBinary) {
+            jsonWriter.close(); // ends the content, the output stream is left open
+        } else {
+            jsonWriter.flush();
+        }
+    }
+
+    /**
+     * Writes the given values into a temporary file, then replaces the configuration file.
+     * <p>
+     * The temporary file is synced to the disk before it replaces the configuration file,
+     * so the file is complete once this method returns, even if the server crashes.
+     *
+     * @param values The copy taken with {@link #copyValues()}, or {@code null} to write the current values.
+     * @param toBinary {@code true} To write the binary file, {@code false} to write the json file.
+     * @throws IllegalStateException If the values could not be written.
+     */
+    private synchronized void write(Object values,
+                                    boolean toBinary) {
+        final Path targetPath = toBinary ? binaryPath : path;
+        final Path tempPath = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), 8192);
+                if (values != null) {
+                    writeValues(outputStream, values, toBinary);
+                } else {
+                    synchronized (path) {
+                        writeValues(outputStream, configurationValues.size() == 1 ?
+                            configurationValues.values().iterator().next() : configurationValues, toBinary);
+                    }
+                }
+                outputStream.flush();
+                channel.force(true);
             }
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory(targetPath.getParent());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to save config: " + name, e);
+        }
+    }
+
+    /**
+     * Syncs the given directory to the disk, so a renamed file is not lost on a crash.
+     * Not every platform can open a directory, on those the rename is not synced.
+     *
+     * @param directory The directory.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // like windows, which can't open a directory
         }
     }
 
+    /**
+     * Returns the type of the given configuration value, with the value primitive type as its type argument.
+     *
+     * @param configValue The configuration value.
+     */
+    private static Type valueType(ConfigurationValue configValue) {
+        return $Gson$Types.newParameterizedTypeWithOwner(null, configValue.getValue().getClass(), configValue.getPrimitiveType());
+    }
+
     /**
      * Returns the configuration key value.
      */
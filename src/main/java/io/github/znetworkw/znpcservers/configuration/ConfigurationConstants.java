@@ -1,9 +1,7 @@
 package io.github.znetworkw.znpcservers.configuration;
 
-import io.github.znetworkw.znpcservers.npc.NPC;
 import io.github.znetworkw.znpcservers.npc.NPCModel;
 import io.github.znetworkw.znpcservers.npc.conversation.Conversation;
-import io.github.znetworkw.znpcservers.npc.task.NPCLoadTask;
 
 import java.util.List;
 
@@ -19,16 +17,36 @@ public final class ConfigurationConstants {
     public static final int SAVE_DELAY = Configuration.CONFIGURATION.getValue(ConfigurationValue.SAVE_NPCS_DELAY_SECONDS);
     /** Determines if rgb animation should be used. */
     public static final boolean RGB_ANIMATION = Configuration.CONFIGURATION.getValue(ConfigurationValue.ANIMATION_RGB);
+    /** Determines if the NPCs should be sent from plain values, without creating a nms entity. */
+    public static final boolean VIRTUAL_ENTITIES = Configuration.CONFIGURATION.getValue(ConfigurationValue.VIRTUAL_ENTITIES);
+    /** How long a npc can be without viewers before it is released. in seconds, 0 or less to never release */
+    public static final int IDLE_RELEASE_SECONDS = Configuration.CONFIGURATION.getValue(ConfigurationValue.IDLE_RELEASE_SECONDS);
+    /** The maximum right clicks per second for each player. */
+    public static final int RIGHT_CLICK_LIMIT = Configuration.CONFIGURATION.getValue(ConfigurationValue.RIGHT_CLICK_LIMIT);
+    /** The maximum left clicks per second for each player. */
+    public static final int LEFT_CLICK_LIMIT = Configuration.CONFIGURATION.getValue(ConfigurationValue.LEFT_CLICK_LIMIT);
+    /** The maximum npc interactions handled each tick. */
+    public static final int INTERACTIONS_PER_TICK = Configuration.CONFIGURATION.getValue(ConfigurationValue.INTERACTIONS_PER_TICK);
+    /** How long the fetched skins are cached. in seconds, 0 or less to disable the cache */
+    public static final int SKIN_CACHE_SECONDS = Configuration.CONFIGURATION.getValue(ConfigurationValue.SKIN_CACHE_SECONDS);
+    /** The maximum threads fetching skins. */
+    public static final int SKIN_FETCH_THREADS = Configuration.CONFIGURATION.getValue(ConfigurationValue.SKIN_FETCH_THREADS);
+    /** The maximum skin requests waiting for a thread. */
+    public static final int SKIN_FETCH_QUEUE_SIZE = Configuration.CONFIGURATION.getValue(ConfigurationValue.SKIN_FETCH_QUEUE_SIZE);
+    /** The maximum requests in progress for each skin server. */
+    public static final int SKIN_REQUESTS_PER_SERVER = Configuration.CONFIGURATION.getValue(ConfigurationValue.SKIN_REQUESTS_PER_SERVER);
+    /** How old a npc skin must be to be refreshed. in seconds, 0 or less to disable the refresh */
+    public static final int SKIN_REFRESH_SECONDS = Configuration.CONFIGURATION.getValue(ConfigurationValue.SKIN_REFRESH_SECONDS);
+    /** The maximum skin requests per minute when refreshing the npc skins. */
+    public static final int SKIN_REFRESH_PER_MINUTE = Configuration.CONFIGURATION.getValue(ConfigurationValue.SKIN_REFRESH_PER_MINUTE);
+    /** {@code true} If the npc changes are appended to the journal between saves. */
+    public static final boolean NPC_JOURNAL = Configuration.CONFIGURATION.getValue(ConfigurationValue.NPC_JOURNAL);
+    /** The journal size that triggers a save of the npcs. in kilobytes */
+    public static final int NPC_JOURNAL_COMPACT_KB = Configuration.CONFIGURATION.getValue(ConfigurationValue.NPC_JOURNAL_COMPACT_KB);
     /** The npc list. */
     public static final List<NPCModel> NPC_LIST = Configuration.DATA.getValue(ConfigurationValue.NPC_LIST);
     /** The npc conversation list. */
     public static final List<Conversation> NPC_CONVERSATIONS = Configuration.CONVERSATIONS.getValue(ConfigurationValue.CONVERSATION_LIST);
 
-    static {
-        NPC_LIST.stream()
-            .map(NPC::new)
-            .forEach(NPCLoadTask::new); // initialize all saved NPC...
-    }
-
     private ConfigurationConstants() {}
 }
@@ -26,6 +26,23 @@ public enum ConfigurationValue {
     NAMING_METHOD("config", NamingType.DEFAULT, NamingType.class),
     LINE_SPACING("config", 0.3, Double.class),
     ANIMATION_RGB("config", false, Boolean.class), // RGB Animation on npc lines...
+    VIRTUAL_ENTITIES("config", true, Boolean.class), // NPCs without a nms entity...
+    IDLE_RELEASE_SECONDS("config", 60 * (5), Integer.class), // release NPCs without viewers (5 minutes), 0 = disabled
+    RIGHT_CLICK_LIMIT("config", 5, Integer.class), // max npc right clicks per second for each player, 0 = unlimited
+    LEFT_CLICK_LIMIT("config", 5, Integer.class), // max npc left clicks per second for each player, 0 = unlimited
+    INTERACTIONS_PER_TICK("config", 100, Integer.class), // max npc interactions handled each tick
+    SERVER_TRANSFER_RATE("config", 10, Integer.class), // max players sent to each server per second
+    SERVER_TRANSFER_RATES("config", new ArrayList<>(), String.class), // custom rates for servers, e.g: "lobby:20"
+    SKIN_CACHE_SECONDS("config", 60 * 60 * (24), Integer.class), // how long the fetched skins are cached (24 hours), 0 = disabled
+    SKIN_FETCH_THREADS("config", 4, Integer.class), // max threads fetching skins
+    SKIN_FETCH_QUEUE_SIZE("config", 256, Integer.class), // max skin requests waiting for a thread
+    SKIN_REQUESTS_PER_SERVER("config", 2, Integer.class), // max requests in progress for each skin server
+    SKIN_REFRESH_SECONDS("config", 60 * 60 * (24), Integer.class), // refresh the npc skins of player names older than this (24 hours), 0 = disabled
+    SKIN_REFRESH_PER_MINUTE("config", 30, Integer.class), // max skin requests per minute when refreshing the npc skins
+    BINARY_STORAGE("config", false, Boolean.class), // save the npcs & conversations on a compact binary file instead of json
+    BINARY_STORAGE_GZIP("config", true, Boolean.class), // compress the binary files
+    NPC_JOURNAL("config", true, Boolean.class), // append the npc changes to data.journal between saves, so they are not lost on a crash
+    NPC_JOURNAL_COMPACT_KB("config", 1024, Integer.class), // save the npcs and clear the journal when it grows past this size
     /** messages */
     NO_PERMISSION("messages", "&cYou do not have permission to execute this command.", String.class),
     SUCCESS("messages", "&aDone...", String.class),
@@ -55,6 +72,7 @@ public enum ConfigurationValue {
     INVALID_SIZE("messages", "&cThe position cannot exceed the limit.", String.class),
     CANT_GET_SKIN("messages", "&ccan't fetch skin with name: %s.", String.class),
     GET_SKIN("messages", "&aSkin fetched.", String.class),
+    SERVER_QUEUE_POSITION("messages", "&7Sending you to &e%s&7, queue position: &e%d", String.class),
     /** conversation */
     CONVERSATION_LIST("conversations", new ArrayList<>(), Conversation.class);
 
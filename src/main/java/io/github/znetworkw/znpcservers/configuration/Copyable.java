@@ -0,0 +1,16 @@
+package io.github.znetworkw.znpcservers.configuration;
+
+/**
+ * A configuration list entry that can be copied on the main thread, so the copy
+ * is serialized by the save thread while the entry keeps changing.
+ *
+ * @param <T> The entry type.
+ * @see Configuration#saveAsync()
+ */
+public interface Copyable<T> {
+    /**
+     * Returns a copy of this entry with the values that are saved, the collections
+     * are copied and the values that are replaced (not modified) are shared.
+     */
+    T copy();
+}
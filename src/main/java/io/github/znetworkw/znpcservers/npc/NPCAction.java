@@ -1,6 +1,8 @@
 package io.github.znetworkw.znpcservers.npc;
 
 import io.github.znetworkw.znpcservers.ServersNPC;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import io.github.znetworkw.znpcservers.configuration.Copyable;
 import io.github.znetworkw.znpcservers.npc.event.ClickType;
 import io.github.znetworkw.znpcservers.user.ZUser;
 import io.github.znetworkw.znpcservers.utility.Utils;
@@ -8,10 +10,17 @@ import com.google.common.base.MoreObjects;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a action for a {@link NPC} being ran by an {@link ZUser}.
  */
-public class NPCAction {
+public class NPCAction implements Copyable<NPCAction> {
+    /** The last compiled action id. */
+    private static final AtomicInteger LAST_ACTION_ID = new AtomicInteger();
+    /** The placeholder char. */
+    private static final char PLACEHOLDER_CHAR = '%';
+
     /**
      * The action type.
      */
@@ -32,6 +41,16 @@ public class NPCAction {
      */
     private int delay;
 
+    /**
+     * The action id, unique for each action, {@code 0} if not compiled yet.
+     */
+    private transient int id;
+
+    /**
+     * The action value ready to run, or {@code null} if the action has placeholders.
+     */
+    private transient String compiledAction;
+
     /**
      * Creates a new {@link NPCAction}.
      *
@@ -106,6 +125,14 @@ public class NPCAction {
         this.delay = delay;
     }
 
+    /**
+     * Returns a copy of the saved action values, the copy is not compiled.
+     */
+    @Override
+    public NPCAction copy() {
+        return new NPCAction(actionType, clickType, action, delay);
+    }
+
     /**
      * @inheritDoc
      */
@@ -113,14 +140,43 @@ public class NPCAction {
         return Utils.SECOND_INTERVAL_NANOS * delay;
     }
 
+    /**
+     * Returns the action id, unique for each action.
+     *
+     * @return The action id.
+     */
+    public int getId() {
+        compile();
+        return id;
+    }
+
+    /**
+     * Prepares the action to run, called when the npc is loaded or on the first run.
+     * <p>
+     * The actions without placeholders are converted only once.
+     */
+    public void compile() {
+        if (id != 0) {
+            return;
+        }
+        if (!Utils.PLACEHOLDER_SUPPORT) {
+            compiledAction = actionType.compile(action);
+        } else if (action.indexOf(PLACEHOLDER_CHAR) == -1) {
+            compiledAction = actionType.compile(action.replace(ConfigurationConstants.SPACE_SYMBOL, " "));
+        }
+        id = LAST_ACTION_ID.incrementAndGet();
+    }
+
     /**
      * Executes the action for the given user.
      *
      * @param user The user player that interacted with the npc.
-     * @param action The action value.
      */
-    public void run(ZUser user, String action) {
-        actionType.run(user, Utils.PLACEHOLDER_SUPPORT ? Utils.getWithPlaceholders(action, user.toPlayer()) : action);
+    public void run(ZUser user) {
+        compile();
+        actionType.run(user, compiledAction != null ?
+            compiledAction :
+            actionType.compile(Utils.getWithPlaceholders(action, user.toPlayer())));
     }
 
     @Override
@@ -168,9 +224,14 @@ public class NPCAction {
          * Represents sending a message to a player.
          */
         MESSAGE {
+            @Override
+            public String compile(String actionValue) {
+                return ChatColor.translateAlternateColorCodes('&', actionValue);
+            }
+
             @Override
             public void run(ZUser user, String actionValue) {
-                user.toPlayer().sendMessage(ChatColor.translateAlternateColorCodes('&', actionValue));
+                user.toPlayer().sendMessage(actionValue);
             }
         },
         /**
@@ -179,7 +240,7 @@ public class NPCAction {
         SERVER {
             @Override
             public void run(ZUser user, String actionValue) {
-                ServersNPC.BUNGEE_UTILS.sendPlayerToServer(user.toPlayer(), actionValue);
+                ServersNPC.BUNGEE_UTILS.queuePlayerToServer(user.toPlayer(), actionValue);
             }
         };
 
@@ -191,5 +252,15 @@ public class NPCAction {
          * <p>
          */
         public abstract void run(ZUser user, String actionValue);
+
+        /**
+         * Converts the action value to the value passed to {@link #run(ZUser, String)}.
+         *
+         * @param actionValue The action value.
+         * @return The converted action value.
+         */
+        public String compile(String actionValue) {
+            return actionValue;
+        }
     }
 }
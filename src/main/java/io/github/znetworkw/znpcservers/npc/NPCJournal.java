@@ -0,0 +1,391 @@
+package io.github.znetworkw.znpcservers.npc;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.znetworkw.znpcservers.ServersNPC;
+import io.github.znetworkw.znpcservers.configuration.Configuration;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import org.bukkit.Bukkit;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An append-only journal of the {@link NPCModel} changes made between the saves of the npcs.
+ * <p>
+ * Each change is written as a json line with the whole changed npc or the deleted npc id.
+ * The lines are appended and synced to the disk in batches by the journal thread. When the
+ * plugin is enabled, the journal is replayed on top of the saved npcs. Once the npcs are saved,
+ * the lines written before the save are removed from the journal.
+ */
+public final class NPCJournal {
+    /** The logger instance. */
+    private static final Logger LOGGER = Logger.getLogger(NPCJournal.class.getName());
+    /** The journal file. */
+    private static final Path JOURNAL_PATH = ServersNPC.PLUGIN_FOLDER.toPath().resolve("data.journal");
+    /** The file used to replace the journal when it is compacted. */
+    private static final Path TEMP_PATH = JOURNAL_PATH.resolveSibling("data.journal.tmp");
+    /** The journal size that triggers a save of the npcs, in bytes. */
+    private static final long COMPACT_BYTES = ConfigurationConstants.NPC_JOURNAL_COMPACT_KB * 1024L;
+    /** Creates a new parser. */
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    /** The record keys. */
+    private static final String TYPE_KEY = "type", NPC_KEY = "npc", ID_KEY = "id";
+    /** The record types. */
+    private static final String SAVE = "SAVE", DELETE = "DELETE";
+    /** The queue entry that stops the journal thread. */
+    private static final Object CLOSE = new Object();
+
+    /**
+     * The entries waiting for the journal thread, either a record line or a
+     * {@link Runnable} that is run after the previous lines were written.
+     */
+    private static final BlockingQueue<Object> QUEUE = new LinkedBlockingQueue<>();
+    /** {@code true} If a save of the npcs was requested by the journal thread. */
+    private static final AtomicBoolean COMPACT_REQUESTED = new AtomicBoolean();
+    /**
+     * {@code true} From the start of a compaction until its trim has run, the checkpoints
+     * are offsets on the current journal file so only one compaction can be pending.
+     */
+    private static final AtomicBoolean COMPACTING = new AtomicBoolean();
+
+    /** The plugin instance. */
+    private static ServersNPC serversNPC;
+    /** The thread that writes the journal, or {@code null} if the journal is not open. */
+    private static volatile Thread journalThread;
+    /** The journal file channel, only used by the journal thread. */
+    private static FileChannel channel;
+    /** The journal size, in bytes. */
+    private static long size;
+
+    private NPCJournal() {}
+
+    /**
+     * Replays the journal on top of the saved npcs and opens the journal for new changes.
+     * Must be called before the npcs are loaded.
+     *
+     * @param plugin The plugin instance.
+     * @param npcModels The saved npcs.
+     */
+    public static void open(ServersNPC plugin, List<NPCModel> npcModels) {
+        serversNPC = plugin;
+        replay(npcModels);
+        if (!ConfigurationConstants.NPC_JOURNAL) {
+            if (Files.exists(JOURNAL_PATH)) {
+                // the journal was disabled, keep the replayed changes on the npc file
+                Configuration.DATA.save();
+                clear();
+            }
+            return;
+        }
+        try {
+            openChannel();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "can't open the npc journal, the npcs are only saved periodically", e);
+            return;
+        }
+        journalThread = new Thread(NPCJournal::run, "znpcs-npc-journal");
+        journalThread.setDaemon(true);
+        journalThread.start();
+    }
+
+    /**
+     * Appends the current values of the given npc to the journal.
+     * Can be called from any thread.
+     *
+     * @param npcModel The changed npc.
+     */
+    public static void record(NPCModel npcModel) {
+        Configuration.DATA.markDirty();
+        if (journalThread == null) {
+            return;
+        }
+        final JsonObject record = new JsonObject();
+        record.addProperty(TYPE_KEY, SAVE);
+        record.add(NPC_KEY, ServersNPC.GSON.toJsonTree(npcModel, NPCModel.class));
+        QUEUE.add(record.toString());
+    }
+
+    /**
+     * Appends the deletion of the given npc to the journal.
+     * Can be called from any thread.
+     *
+     * @param id The deleted npc id.
+     */
+    public static void delete(int id) {
+        Configuration.DATA.markDirty();
+        if (journalThread == null) {
+            return;
+        }
+        final JsonObject record = new JsonObject();
+        record.addProperty(TYPE_KEY, DELETE);
+        record.addProperty(ID_KEY, id);
+        QUEUE.add(record.toString());
+    }
+
+    /**
+     * Saves the npcs on a background thread, then removes the saved changes from the journal.
+     * Does nothing while the previous compaction is pending. Must be called on the main thread.
+     */
+    public static void compact() {
+        COMPACT_REQUESTED.set(false);
+        if (journalThread == null) {
+            Configuration.DATA.saveAsync();
+            return;
+        }
+        if (!COMPACTING.compareAndSet(false, true)) {
+            return; // the npcs are saved by the pending compaction, the next one saves the later changes
+        }
+        // the lines written before this point are contained on the saved npcs
+        final AtomicLong checkpoint = new AtomicLong();
+        QUEUE.add((Runnable) () -> checkpoint.set(size));
+        Configuration.DATA.saveAsync().whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                COMPACTING.set(false); // nothing was saved, the journal is kept
+                return;
+            }
+            QUEUE.add((Runnable) () -> {
+                try {
+                    trim(checkpoint.get());
+                } finally {
+                    COMPACTING.set(false);
+                }
+            });
+        });
+    }
+
+    /**
+     * Writes the waiting changes and stops the journal thread, called when the plugin is disabled.
+     */
+    public static void close() {
+        if (journalThread == null) {
+            return;
+        }
+        QUEUE.add(CLOSE);
+        try {
+            journalThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journalThread = null;
+    }
+
+    /**
+     * Deletes the journal, called once the npcs are saved with all the journal changes.
+     */
+    public static void clear() {
+        try {
+            Files.deleteIfExists(JOURNAL_PATH);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "can't delete the npc journal", e);
+        }
+    }
+
+    /**
+     * Applies the journal changes to the given npcs, the lines that cannot be read are skipped.
+     *
+     * @param npcModels The saved npcs.
+     */
+    private static void replay(List<NPCModel> npcModels) {
+        if (!Files.exists(JOURNAL_PATH)) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        int changes = 0;
+        try (BufferedReader reader = Files.newBufferedReader(JOURNAL_PATH, StandardCharsets.UTF_8)) {
+            String line;
+            for (int lineNumber = 1; (line = reader.readLine()) != null; lineNumber++) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    apply(JSON_PARSER.parse(line).getAsJsonObject(), npcModels);
+                    changes++;
+                } catch (RuntimeException e) {
+                    // a line cut by a crash while it was written
+                    LOGGER.warning(String.format("Skipping corrupt npc journal line %d: %s", lineNumber, e));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "can't read the npc journal", e);
+        }
+        if (changes > 0) {
+            Configuration.DATA.markDirty();
+            LOGGER.info(String.format("Replayed %d npc changes in %dms", changes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+        }
+    }
+
+    /**
+     * Applies a journal record to the given npcs.
+     *
+     * @param record The journal record.
+     * @param npcModels The npcs.
+     */
+    private static void apply(JsonObject record, List<NPCModel> npcModels) {
+        final String type = record.get(TYPE_KEY).getAsString();
+        if (SAVE.equals(type)) {
+            final NPCModel npcModel = ServersNPC.GSON.fromJson(record.get(NPC_KEY), NPCModel.class);
+            for (int i = 0; i < npcModels.size(); i++) {
+                if (npcModels.get(i).getId() == npcModel.getId()) {
+                    npcModels.set(i, npcModel);
+                    return;
+                }
+            }
+            npcModels.add(npcModel);
+        } else if (DELETE.equals(type)) {
+            final int id = record.get(ID_KEY).getAsInt();
+            npcModels.removeIf(npcModel -> npcModel.getId() == id);
+        } else {
+            throw new IllegalStateException("unknown record type: " + type);
+        }
+    }
+
+    /**
+     * Writes the queued entries until the journal is closed. The lines
+     * taken together are written and synced to the disk once.
+     */
+    private static void run() {
+        final List<Object> batch = new ArrayList<>();
+        final ByteArrayOutputStream pending = new ByteArrayOutputStream(8192);
+        boolean closed = false;
+        while (!closed) {
+            try {
+                batch.add(QUEUE.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            QUEUE.drainTo(batch);
+            try {
+                for (Object entry : batch) {
+                    if (entry == CLOSE) {
+                        closed = true;
+                    } else if (entry instanceof String) {
+                        pending.write(((String) entry).getBytes(StandardCharsets.UTF_8));
+                        pending.write('\n');
+                    } else {
+                        append(pending);
+                        runTask((Runnable) entry);
+                    }
+                }
+                append(pending);
+                channel.force(false);
+                if (!closed && size >= COMPACT_BYTES && !COMPACTING.get() && COMPACT_REQUESTED.compareAndSet(false, true)) {
+                    Bukkit.getScheduler().runTask(serversNPC, NPCJournal::compact);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "can't write the npc journal", e);
+                pending.reset();
+                reopenChannel();
+            }
+            batch.clear();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "can't close the npc journal", e);
+        }
+    }
+
+    /**
+     * Runs a queued task, a failed task does not stop the lines queued after it.
+     *
+     * @param task The task.
+     */
+    private static void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "npc journal task failed", e);
+            reopenChannel();
+        }
+    }
+
+    /**
+     * Opens the journal file again if it was closed by a failed write or compaction.
+     */
+    private static void reopenChannel() {
+        if (channel.isOpen()) {
+            return;
+        }
+        try {
+            openChannel();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "can't open the npc journal", e);
+        }
+    }
+
+    /**
+     * Appends the pending lines to the journal.
+     *
+     * @param pending The pending lines, cleared by this method.
+     * @throws IOException If the lines could not be written.
+     */
+    private static void append(ByteArrayOutputStream pending) throws IOException {
+        if (pending.size() == 0) {
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+        pending.reset();
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+    }
+
+    /**
+     * Removes the lines written before the given position, which are contained on the saved npcs.
+     *
+     * @param position The journal size when the npcs were saved.
+     * @throws IllegalStateException If the journal could not be replaced.
+     */
+    private static void trim(long position) {
+        try {
+            try (FileChannel tempChannel = FileChannel.open(TEMP_PATH, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (long offset = position; offset < size; ) {
+                    offset += channel.transferTo(offset, size - offset, tempChannel);
+                }
+                tempChannel.force(false);
+            }
+            channel.close();
+            try {
+                Files.move(TEMP_PATH, JOURNAL_PATH, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(TEMP_PATH, JOURNAL_PATH, StandardCopyOption.REPLACE_EXISTING);
+            }
+            openChannel();
+        } catch (IOException e) {
+            throw new IllegalStateException("can't compact the npc journal", e);
+        }
+    }
+
+    /**
+     * Opens the journal file, new lines are appended at its end.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    private static void openChannel() throws IOException {
+        channel = FileChannel.open(JOURNAL_PATH, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        channel.position(size);
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.znetworkw.znpcservers.npc;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.Streams;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.github.znetworkw.znpcservers.configuration.Configuration;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes the {@link NPCModel} lists with a separate skin table.
+ * <p>
+ * The skins are saved once on the {@code skins} table, keyed by the hash of their values,
+ * and each npc only saves the key of its skin. The lists saved with the skin values on
+ * each npc are still read, and are saved with the skin table on the next save.
+ * The npcs are converted one at a time, an npc that cannot be read is logged and skipped.
+ */
+public class NPCModelListAdapter extends TypeAdapter<List<NPCModel>> {
+    /** The factory for the {@link NPCModel} list adapter. */
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!Collection.class.isAssignableFrom(type.getRawType())
+                || !(type.getType() instanceof ParameterizedType)
+                || ((ParameterizedType) type.getType()).getActualTypeArguments()[0] != NPCModel.class) {
+                return null;
+            }
+            return (TypeAdapter<T>) new NPCModelListAdapter(gson.getAdapter(NPCModel.class)).nullSafe();
+        }
+    };
+
+    /** The logger instance. */
+    private static final Logger LOGGER = Logger.getLogger(NPCModelListAdapter.class.getName());
+    /** The skin table key. */
+    private static final String SKINS_KEY = "skins";
+    /** The npc list key. */
+    private static final String NPCS_KEY = "npcs";
+    /** The npc skin key. */
+    private static final String SKIN_KEY = "skinKey";
+    /** The skin texture keys. */
+    private static final String TEXTURE_KEY = "skin", SIGNATURE_KEY = "signature";
+
+    /** The adapter for each npc model. */
+    private final TypeAdapter<NPCModel> modelAdapter;
+
+    /**
+     * Creates a new adapter.
+     *
+     * @param modelAdapter The adapter for each npc model.
+     */
+    private NPCModelListAdapter(TypeAdapter<NPCModel> modelAdapter) {
+        this.modelAdapter = modelAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, List<NPCModel> npcModels) throws IOException {
+        // the skin table is written first, then each npc is converted and written one at a time
+        final Map<String, NPCSkin> skins = new LinkedHashMap<>();
+        final Map<NPCModel, String> skinKeys = new IdentityHashMap<>();
+        for (NPCModel npcModel : npcModels) {
+            if (npcModel.getSkin() != null && !npcModel.getSkin().isEmpty()) {
+                final String skinKey = skinKey(npcModel.getSkin(), npcModel.getSignature());
+                skinKeys.put(npcModel, skinKey);
+                skins.putIfAbsent(skinKey, NPCSkin.forValues(npcModel.getSkin(), npcModel.getSignature()));
+            }
+        }
+        out.beginObject();
+        out.name(SKINS_KEY).beginObject();
+        for (Map.Entry<String, NPCSkin> skin : skins.entrySet()) {
+            out.name(skin.getKey()).beginObject();
+            out.name(TEXTURE_KEY).value(skin.getValue().getTexture());
+            out.name(SIGNATURE_KEY).value(skin.getValue().getSignature());
+            out.endObject();
+        }
+        out.endObject();
+        out.name(NPCS_KEY).beginArray();
+        for (NPCModel npcModel : npcModels) {
+            final JsonObject npc = modelAdapter.toJsonTree(npcModel).getAsJsonObject();
+            npc.remove(TEXTURE_KEY);
+            npc.remove(SIGNATURE_KEY);
+            final String skinKey = skinKeys.get(npcModel);
+            if (skinKey != null) {
+                npc.addProperty(SKIN_KEY, skinKey);
+            }
+            Streams.write(npc, out);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public List<NPCModel> read(JsonReader in) throws IOException {
+        final List<NPCModel> npcModels = new ArrayList<>();
+        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+            // the skin values are saved on each npc
+            in.beginArray();
+            for (int index = 0; in.hasNext(); index++) {
+                final JsonElement npc = Streams.parse(in);
+                try {
+                    final NPCModel npcModel = modelAdapter.fromJsonTree(npc);
+                    if (npcModel != null) {
+                        npcModels.add(npcModel);
+                    }
+                } catch (RuntimeException e) {
+                    skipEntry(NPCS_KEY, index, e);
+                }
+            }
+            in.endArray();
+            return npcModels;
+        }
+        final Map<String, NPCSkin> skins = new HashMap<>();
+        final Map<NPCModel, String> skinKeys = new IdentityHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            final String name = in.nextName();
+            if (SKINS_KEY.equals(name)) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    final String skinKey = in.nextName();
+                    final JsonElement skin = Streams.parse(in);
+                    try {
+                        final JsonObject skinObject = skin.getAsJsonObject();
+                        skins.put(skinKey, NPCSkin.forValues(skinObject.get(TEXTURE_KEY).getAsString(),
+                            skinObject.has(SIGNATURE_KEY) ? skinObject.get(SIGNATURE_KEY).getAsString() : ""));
+                    } catch (RuntimeException e) {
+                        // the npcs using this skin keep the default skin
+                        skipEntry(SKINS_KEY, skinKey, e);
+                    }
+                }
+                in.endObject();
+            } else if (NPCS_KEY.equals(name)) {
+                in.beginArray();
+                for (int index = 0; in.hasNext(); index++) {
+                    final JsonElement npc = Streams.parse(in);
+                    if (npc.isJsonNull()) {
+                        continue;
+                    }
+                    try {
+                        final JsonElement skinKey = npc.getAsJsonObject().remove(SKIN_KEY);
+                        final NPCModel npcModel = modelAdapter.fromJsonTree(npc);
+                        if (npcModel == null) {
+                            continue;
+                        }
+                        if (skinKey != null) {
+                            skinKeys.put(npcModel, skinKey.getAsString());
+                        }
+                        npcModels.add(npcModel);
+                    } catch (RuntimeException e) {
+                        skipEntry(NPCS_KEY, index, e);
+                    }
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        // the skin table may be read after the npcs
+        for (Map.Entry<NPCModel, String> skinKey : skinKeys.entrySet()) {
+            final NPCSkin npcSkin = skins.get(skinKey.getValue());
+            if (npcSkin == null) {
+                continue; // missing skin, the npc keeps the default skin
+            }
+            skinKey.getKey().setSkin(npcSkin.getTexture());
+            skinKey.getKey().setSignature(npcSkin.getSignature());
+        }
+        return npcModels;
+    }
+
+    /**
+     * Logs an entry that could not be read, the original file is kept by the configuration.
+     *
+     * @param table The table of the entry.
+     * @param entry The entry index or key.
+     * @param exception The read error.
+     */
+    private static void skipEntry(String table, Object entry, RuntimeException exception) {
+        LOGGER.warning(String.format("Skipping corrupt entry %s of %s: %s", entry, table, exception));
+        Configuration.skippedEntry();
+    }
+
+    /**
+     * Returns the skin table key for the given skin values.
+     *
+     * @param texture The skin texture.
+     * @param signature The skin signature.
+     * @return The skin key.
+     */
+    private static String skinKey(String texture, String signature) {
+        return Hashing.sha256().newHasher()
+            .putString(texture, StandardCharsets.UTF_8)
+            .putByte((byte) 0)
+            .putString(signature == null ? "" : signature, StandardCharsets.UTF_8)
+            .hash().toString().substring(0, 32);
+    }
+}
@@ -1,10 +1,13 @@
 package io.github.znetworkw.znpcservers.npc;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.mojang.authlib.properties.Property;
 import io.github.znetworkw.znpcservers.skin.SkinFetcherBuilder;
 import io.github.znetworkw.znpcservers.skin.SkinFetcherResult;
 import io.github.znetworkw.znpcservers.utility.Utils;
 
-import java.util.concurrent.Future;
+import java.util.Objects;
 
 /**
  * This class is intended to contain the skin information,
@@ -12,6 +15,9 @@ import java.util.concurrent.Future;
  * <p />
  * Create a new {@link NPCSkin} using {@link #forName(String, SkinFetcherResult)} or
  * {@link #forValues(String...)} if you already know the skin values.
+ * <p />
+ * The skins are immutable and interned by their values, so the NPCs with the same
+ * skin share the same {@link NPCSkin} and profile {@link Property} instance.
  */
 public class NPCSkin {
     /** A empty string. */
@@ -23,12 +29,21 @@ public class NPCSkin {
     /** The skin layer index. */
     private static final int LAYER_INDEX = SkinLayerValues.findLayerByVersion();
 
+    /** The {@link com.mojang.authlib.GameProfile} texture key name. */
+    private static final String PROFILE_TEXTURES = "textures";
+
+    /** The interned skins, the skins that are no longer used are removed. */
+    private static final Interner<NPCSkin> SKIN_REGISTRY = Interners.newWeakInterner();
+
     /** The skin texture. */
     private final String texture;
 
     /** The skin signature. */
     private final String signature;
 
+    /** The skin profile property. */
+    private final Property property;
+
     /**
      * Constructor for creating a {@link NPCSkin} object with the texture values
      * <p>The first element of the array will be used as the texture of the npc {@link com.mojang.authlib.GameProfile}
@@ -41,6 +56,7 @@ public class NPCSkin {
         }
         this.texture = values[0];
         this.signature = values[1];
+        this.property = new Property(PROFILE_TEXTURES, texture, signature);
     }
 
     /**
@@ -57,6 +73,13 @@ public class NPCSkin {
         return signature;
     }
 
+    /**
+     * Returns the skin profile property.
+     */
+    public Property getProperty() {
+        return property;
+    }
+
     /**
      * Returns the skin layer index for the current bukkit version.
      */
@@ -66,10 +89,27 @@ public class NPCSkin {
 
     /**
      * @param values The skin values.
-     * @return A {@link NPCSkin} instance with the given values.
+     * @return The shared {@link NPCSkin} instance with the given values.
      */
     public static NPCSkin forValues(String...values) {
-        return new NPCSkin(values.length > 0 ? values : EMPTY_ARRAY);
+        return SKIN_REGISTRY.intern(new NPCSkin(values.length > 0 ? values : EMPTY_ARRAY));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof NPCSkin)) {
+            return false;
+        }
+        NPCSkin npcSkin = (NPCSkin) object;
+        return Objects.equals(texture, npcSkin.texture) && Objects.equals(signature, npcSkin.signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(texture, signature);
     }
 
     /**
@@ -81,6 +121,15 @@ public class NPCSkin {
         SkinFetcherBuilder.withName(skin).toSkinFetcher().doReadSkin(skinFetcherResult);
     }
 
+    /**
+     * Fetches a skin profile by its name or url from the skin server, ignoring the cached skin.
+     *
+     * @param skin The skin name or url.
+     */
+    public static void fetchName(String skin, SkinFetcherResult skinFetcherResult) {
+        SkinFetcherBuilder.withName(skin).toSkinFetcher().doReadSkin(skinFetcherResult, false);
+    }
+
     /**
      * Used to find the skin layer index for the current bukkit version.
      */
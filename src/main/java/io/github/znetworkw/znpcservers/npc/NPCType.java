@@ -187,6 +187,13 @@ public enum NPCType {
             // method not found for npc type
             return;
         }
+        if (!npc.isMaterialized()) {
+            npc.materialize();
+        }
+        if (npc.isVirtual()) {
+            // customizations are applied on the bukkit entity
+            npc.changeType(this, false);
+        }
         try {
             Method method = customizationLoader.getMethods().get(name);
             method.invoke(npc.getBukkitEntity(), arrayToPrimitive(values, method));
@@ -6,13 +6,18 @@ import io.github.znetworkw.znpcservers.UnexpectedCallException;
 import io.github.znetworkw.znpcservers.npc.hologram.Hologram;
 import io.github.znetworkw.znpcservers.npc.conversation.ConversationModel;
 import io.github.znetworkw.znpcservers.cache.CacheRegistry;
+import io.github.znetworkw.znpcservers.configuration.Configuration;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
 import io.github.znetworkw.znpcservers.npc.packet.PacketCache;
+import io.github.znetworkw.znpcservers.npc.packet.VirtualEntity;
 import io.github.znetworkw.znpcservers.user.ZUser;
+import io.github.znetworkw.znpcservers.utility.ConcurrentIntMap;
 import io.github.znetworkw.znpcservers.utility.Utils;
 import io.github.znetworkw.znpcservers.utility.location.ZLocation;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.properties.Property;
 import com.mojang.authlib.properties.PropertyMap;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -20,6 +25,7 @@ import org.bukkit.entity.Player;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents a npc.
@@ -29,15 +35,19 @@ public class NPC {
      * A map containing the stored npcs.
      */
     private static final ConcurrentMap<Integer, NPC> NPC_MAP = new ConcurrentHashMap<>();
+    /** A map containing the npcs by their entity ids and hologram entity ids. */
+    private static final ConcurrentIntMap<NPC> ENTITY_ID_MAP = new ConcurrentIntMap<>();
     /** The {@link GameProfile} texture key name for the npc. */
     private static final String PROFILE_TEXTURES = "textures";
     /** The tab list prefix for npc. */
     private static final String START_PREFIX = ChatColor.DARK_GRAY + "[NPC] ";
 
-    /** A set of players who can see the npc. */
-    private final Set<ZUser> viewers = new HashSet<>();
+    /** A set of players who can see the npc, used from the main and the npc task threads. */
+    private final Set<ZUser> viewers = ConcurrentHashMap.newKeySet();
     /** The npc packets. */
     private final PacketCache packets = new PacketCache();
+    /** The mirror tab list packets for each viewer, used from the main and the npc task threads. */
+    private final Map<ZUser, MirrorTabPacket> mirrorTabPackets = Collections.synchronizedMap(new WeakHashMap<>());
     /** The npc model class. */
     private final NPCModel npcPojo;
     /** The npc hologram. */
@@ -45,12 +55,22 @@ public class NPC {
     /** The npc tab name. */
     private final String npcName;
     /** The npc skin. */
-    private final NPCSkin npcSkin;
+    private NPCSkin npcSkin;
 
     /** Last npc move. */
     private long lastMove = -1;
-    /** The bukkit entity id. */
-    private int entityID;
+    /** Last time the npc had viewers. */
+    private long lastViewed = -1;
+    /** Determines if the npc entity, hologram and packets are created, set once they are all built. */
+    private volatile boolean materialized = false;
+    /** {@code true} While {@link #materialize()} builds the npc state, guarded by the npc lock. */
+    private boolean materializing = false;
+    /** Determines if a materialize or release is scheduled on the main thread. */
+    private final AtomicBoolean pendingTransition = new AtomicBoolean();
+    /** The bukkit entity id, or {@code -1} if the npc is not materialized. */
+    private int entityID = -1;
+    /** The npc entity flags (index 0 of the entity meta data). */
+    private byte entityFlags;
     /** The reflection variables. */
     private Object glowColor, tabConstructor, nmsEntity, bukkitEntity;
     /** The npc entity uuid. */
@@ -87,31 +107,125 @@ public class NPC {
     /**
      * Initialization of all the necessary functions for the npc,
      * called when a npc is created for the first time.
+     * <p>
+     * If {@link ConfigurationConstants#IDLE_RELEASE_SECONDS} is enabled the npc starts dormant,
+     * only holding its model and location, and is materialized when a player comes in range.
      *
      * @throws IllegalStateException If the npc is already loaded.
+     * @see #prepare()
+     * @see #register()
      */
     public void onLoad() {
+        prepare();
+        register();
+    }
+
+    /**
+     * Prepares the npc profile, skin properties and path.
+     * <p>
+     * Does not touch the server state, the npc is added to the server with {@link #register()}.
+     */
+    public void prepare() {
+        gameProfile = new GameProfile(UUID.randomUUID(), START_PREFIX + npcName);
+        setSkinValues(npcSkin);
+
+        if (npcPojo.getPathName() != null) {
+            setPath(NPCPath.AbstractTypeWriter.find(npcPojo.getPathName()));
+        }
+
+        if (npcPojo.getClickActions() != null) {
+            npcPojo.getClickActions().forEach(NPCAction::compile);
+        }
+    }
+
+    /**
+     * Registers a prepared npc, must be called on the main thread.
+     *
+     * @throws IllegalStateException If the npc is already loaded.
+     */
+    public void register() {
         if (NPC_MAP.containsKey(getNpcPojo().getId())) {
             throw new IllegalStateException("npc with id " + getNpcPojo().getId() + " already exists.");
         }
+        if (ConfigurationConstants.IDLE_RELEASE_SECONDS <= 0) {
+            materialize();
+        }
+        // register NPC in the map
+        NPC_MAP.put(getNpcPojo().getId(), this);
+    }
 
-        gameProfile = new GameProfile(UUID.randomUUID(), START_PREFIX + npcName);
-        gameProfile.getProperties().put(PROFILE_TEXTURES, new Property(PROFILE_TEXTURES, npcPojo.getSkin(), npcPojo.getSignature()));
+    /**
+     * Creates the npc entity, hologram and packets if the npc is dormant, must be called on the main thread.
+     * <p>
+     * The npc is seen as materialized by the other threads only once the whole state is built.
+     */
+    public synchronized void materialize() {
+        if (materialized || materializing) {
+            return;
+        }
+        materializing = true;
+        try {
+            changeType(npcPojo.getNpcType());
+            updateProfile(gameProfile.getProperties());
 
-        changeType(npcPojo.getNpcType());
-        updateProfile(gameProfile.getProperties());
+            setLocation(getLocation(), false);
 
-        setLocation(getNpcPojo().getLocation().bukkitLocation(), false);
+            hologram.createHologram();
 
-        hologram.createHologram();
+            npcPojo.getCustomizationMap().forEach((key, value) -> npcPojo.getNpcType().updateCustomization(this, key, value));
+            lastViewed = System.nanoTime();
+            materialized = true;
+        } finally {
+            materializing = false;
+        }
+    }
 
-        if (npcPojo.getPathName() != null) {
-            setPath(NPCPath.AbstractTypeWriter.find(npcPojo.getPathName()));
+    /**
+     * Returns {@code true} if the npc entity exists, either materialized or being materialized.
+     */
+    private boolean hasEntity() {
+        return materialized || materializing;
+    }
+
+    /**
+     * Releases the npc entity, hologram and cached packets, the npc will be dormant
+     * until it is materialized again.
+     * <p>
+     * The npc is not released if it has viewers. Must be called on the main thread.
+     */
+    public synchronized void release() {
+        if (!materialized || !viewers.isEmpty()) {
+            return;
         }
+        materialized = false;
+        nmsEntity = null;
+        bukkitEntity = null;
+        tabConstructor = null;
+        mirrorTabPackets.clear();
+        unregisterEntityId(entityID);
+        entityID = -1;
+        hologram.release();
+        packets.flushCache();
+    }
 
-        npcPojo.getCustomizationMap().forEach((key, value) -> npcPojo.getNpcType().updateCustomization(this, key, value));
-        // register NPC in the map
-        NPC_MAP.put(getNpcPojo().getId(), this);
+    /**
+     * Releases the npc if it had no viewers for the given time.
+     *
+     * @param idleNanos The maximum time without viewers, in nanoseconds.
+     */
+    public void releaseIfIdle(long idleNanos) {
+        if (!viewers.isEmpty()) {
+            lastViewed = System.nanoTime();
+        } else if (materialized && System.nanoTime() - lastViewed >= idleNanos) {
+            runOnMainThread(this::release);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the npc entity, hologram and packets are created.
+     */
+    public boolean isMaterialized() {
+        return materialized;
     }
 
     /**
@@ -191,6 +305,51 @@ public class NPC {
         return packets;
     }
 
+    /**
+     * Returns {@code true} if the npc is a virtual entity, without a nms entity.
+     */
+    public boolean isVirtual() {
+        return nmsEntity == null;
+    }
+
+    /**
+     * Registers an entity id of the npc, the interactions with the entity will be handled by the npc.
+     *
+     * @param entityId The entity id.
+     */
+    public void registerEntityId(int entityId) {
+        ENTITY_ID_MAP.put(entityId, this);
+    }
+
+    /**
+     * Unregisters an entity id of the npc.
+     *
+     * @param entityId The entity id.
+     */
+    public void unregisterEntityId(int entityId) {
+        ENTITY_ID_MAP.remove(entityId, this);
+    }
+
+    /**
+     * Sets the npc entity flags, for example glowing.
+     *
+     * @param entityFlags The new entity flags.
+     */
+    public void setEntityFlags(byte entityFlags) {
+        this.entityFlags = entityFlags;
+        if (isVirtual()) {
+            // virtual npcs send the flags with the meta data packet
+            return;
+        }
+        try {
+            CacheRegistry.SET_DATA_WATCHER_METHOD.invoke(CacheRegistry.GET_DATA_WATCHER_METHOD.invoke(nmsEntity),
+                CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(0, CacheRegistry.DATA_WATCHER_REGISTER_FIELD),
+                entityFlags);
+        } catch (ReflectiveOperationException operationException) {
+            throw new UnexpectedCallException(operationException);
+        }
+    }
+
     /**
      * Sets the {@link #getGlowColor()} of this npc.
      *
@@ -204,6 +363,7 @@ public class NPC {
      * Sets a new location for the npc.
      *
      * @param location The new location.
+     * @param updateTime {@code true} If the npc was moved, the new location is saved.
      */
     public void setLocation(Location location, boolean updateTime) {
         try {
@@ -213,11 +373,23 @@ public class NPC {
                 lookAt(null, location, true);
                 if (updateTime) {
                     lastMove = System.nanoTime();
+                    Configuration.DATA.markDirty();
                 }
                 npcPojo.setLocation(new ZLocation(location = new Location(location.getWorld(), location.getBlockX() + 0.5, location.getY(), location.getBlockZ() + 0.5, location.getYaw(), location.getPitch())));
             }
-            CacheRegistry.SET_LOCATION_METHOD.invoke(nmsEntity, location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
-            final Object npcTeleportPacket = CacheRegistry.PACKET_PLAY_OUT_ENTITY_TELEPORT_CONSTRUCTOR.newInstance(nmsEntity);
+            if (!hasEntity()) {
+                // the location is sent when the npc is materialized
+                return;
+            }
+            final Object npcTeleportPacket;
+            if (isVirtual()) {
+                npcTeleportPacket = VirtualEntity.teleportPacket(entityID, location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+                // the virtual spawn packet contains the location
+                packets.flushCache("virtualSpawnPacket");
+            } else {
+                CacheRegistry.SET_LOCATION_METHOD.invoke(nmsEntity, location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+                npcTeleportPacket = CacheRegistry.PACKET_PLAY_OUT_ENTITY_TELEPORT_CONSTRUCTOR.newInstance(nmsEntity);
+            }
             // update new location
             viewers.forEach(player -> Utils.sendPackets(player, npcTeleportPacket));
             // update the hologram location
@@ -233,20 +405,47 @@ public class NPC {
      * @param skinFetch The skin to set.
      */
     public void changeSkin(NPCSkin skinFetch) {
-        npcPojo.setSkin(skinFetch.getTexture());
-        npcPojo.setSignature(skinFetch.getSignature());
+        changeSkin(skinFetch, null);
+    }
+
+    /**
+     * Updates the npc skin.
+     *
+     * @param skinFetch The skin to set.
+     * @param skinName The player name or url the skin was fetched from, or {@code null} if unknown.
+     */
+    public void changeSkin(NPCSkin skinFetch, String skinName) {
+        npcPojo.setSkinName(skinName);
+        npcPojo.setSkinTime(System.currentTimeMillis());
         // set new profile properties (skin values)
-        gameProfile.getProperties().clear();
-        gameProfile.getProperties().put(PROFILE_TEXTURES, new Property(PROFILE_TEXTURES, npcPojo.getSkin(), npcPojo.getSignature()));
+        setSkinValues(skinFetch);
         updateProfile(gameProfile.getProperties());
         // spawn npc again for viewers
         deleteViewers();
+        NPCJournal.record(npcPojo);
+    }
+
+    /**
+     * Sets the npc skin, the model and the profile share the skin values.
+     *
+     * @param npcSkin The skin to set.
+     */
+    private void setSkinValues(NPCSkin npcSkin) {
+        this.npcSkin = npcSkin;
+        npcPojo.setSkin(npcSkin.getTexture());
+        npcPojo.setSignature(npcSkin.getSignature());
+        gameProfile.getProperties().removeAll(PROFILE_TEXTURES);
+        gameProfile.getProperties().put(PROFILE_TEXTURES, npcSkin.getProperty());
     }
 
     /**
      * Enables second layer of skin for the npc.
      */
     public void setSecondLayerSkin() {
+        if (isVirtual()) {
+            // virtual npcs send the skin layer with the meta data packet
+            return;
+        }
         try {
             Object dataWatcherObject = CacheRegistry.GET_DATA_WATCHER_METHOD.invoke(nmsEntity);
             if (Utils.versionNewer(9)) {
@@ -259,27 +458,64 @@ public class NPC {
 
     /**
      * Changes the entity type of the npc.
+     * <p>
+     * The npc will be a virtual entity if enabled on the configuration and the
+     * npc does not have customizations, since the customizations are applied on the bukkit entity.
      *
      * @param npcType The new entity type.
      */
     public void changeType(NPCType npcType) {
+        changeType(npcType, ConfigurationConstants.VIRTUAL_ENTITIES && npcPojo.getCustomizationMap().isEmpty());
+    }
+
+    /**
+     * Changes the entity type of the npc.
+     *
+     * @param npcType The new entity type.
+     * @param virtual {@code true} If the npc should be a virtual entity, without a nms entity.
+     */
+    public void changeType(NPCType npcType, boolean virtual) {
+        if (npcPojo.getNpcType() != npcType) {
+            Configuration.DATA.markDirty();
+        }
+        if (!hasEntity()) {
+            // the entity is created when the npc is materialized
+            npcPojo.setNpcType(npcType);
+            return;
+        }
         try {
-            final Object nmsWorld = CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(getLocation().getWorld());
             final boolean isPlayer = npcType == NPCType.PLAYER;
-            nmsEntity = (isPlayer ? packets.getProxyInstance().getPlayerPacket(nmsWorld, gameProfile) : (Utils.versionNewer(14) ? npcType.getConstructor().newInstance(npcType.getNmsEntityType(), nmsWorld) : npcType.getConstructor().newInstance(nmsWorld)));
-            bukkitEntity = (CacheRegistry.GET_BUKKIT_ENTITY_METHOD.invoke(nmsEntity));
-            uuid = (UUID) CacheRegistry.GET_UNIQUE_ID_METHOD.invoke(nmsEntity);
-            if (isPlayer) {
-                tabConstructor = (CacheRegistry.PACKET_PLAY_OUT_PLAYER_INFO_CONSTRUCTOR.newInstance(CacheRegistry.ADD_PLAYER_FIELD, Collections.singletonList(nmsEntity)));
-                setSecondLayerSkin();
+            final int newEntityID;
+            if (virtual) {
+                nmsEntity = null;
+                bukkitEntity = null;
+                // player npcs use the profile id as the entity uuid
+                uuid = isPlayer ? gameProfile.getId() : UUID.randomUUID();
+                newEntityID = VirtualEntity.nextEntityId();
+                tabConstructor = isPlayer ? VirtualEntity.playerInfoPacket(CacheRegistry.ADD_PLAYER_FIELD, gameProfile) : null;
+            } else {
+                final Object nmsWorld = CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(getLocation().getWorld());
+                nmsEntity = (isPlayer ? packets.getProxyInstance().getPlayerPacket(nmsWorld, gameProfile) : (Utils.versionNewer(14) ? npcType.getConstructor().newInstance(npcType.getNmsEntityType(), nmsWorld) : npcType.getConstructor().newInstance(nmsWorld)));
+                bukkitEntity = (CacheRegistry.GET_BUKKIT_ENTITY_METHOD.invoke(nmsEntity));
+                uuid = (UUID) CacheRegistry.GET_UNIQUE_ID_METHOD.invoke(nmsEntity);
+                newEntityID = ((Integer) CacheRegistry.GET_ENTITY_ID.invoke(nmsEntity));
+                if (isPlayer) {
+                    tabConstructor = (CacheRegistry.PACKET_PLAY_OUT_PLAYER_INFO_CONSTRUCTOR.newInstance(CacheRegistry.ADD_PLAYER_FIELD, Collections.singletonList(nmsEntity)));
+                    setSecondLayerSkin();
+                }
             }
             npcPojo.setNpcType(npcType);
-            // teleport new npc type to the last or saved npc location
-            setLocation(getLocation(), false);
-            packets.flushCache("spawnPacket", "removeTab"); // flush caches
             // update new npc type for viewers
             deleteViewers();
-            entityID = ((Integer) CacheRegistry.GET_ENTITY_ID.invoke(nmsEntity));
+            if (entityID != -1) {
+                unregisterEntityId(entityID);
+            }
+            entityID = newEntityID;
+            registerEntityId(entityID);
+            // teleport new npc type to the last or saved npc location
+            setLocation(getLocation(), false);
+            packets.flushCache("spawnPacket", "removeTab", "virtualSpawnPacket", "virtualRemoveTab"); // flush caches
+            mirrorTabPackets.clear();
             // run active functions
             FunctionFactory.findFunctionsForNpc(this).forEach(function -> function.resolve(this));
             getPackets().getProxyInstance().update(packets);
@@ -288,16 +524,46 @@ public class NPC {
         }
     }
 
+    /**
+     * Runs the given materialize or release on the main thread, unless one is already scheduled.
+     *
+     * @param transition The materialize or release call.
+     */
+    private void runOnMainThread(Runnable transition) {
+        if (!pendingTransition.compareAndSet(false, true)) {
+            return;
+        }
+        ServersNPC.SCHEDULER.runTask(() -> {
+            try {
+                transition.run();
+            } finally {
+                pendingTransition.set(false);
+            }
+        });
+    }
+
     /**
      * Spawns the npc for the given player.
+     * <p>
+     * If the npc is dormant and this is not the main thread, the npc is materialized
+     * on the main thread and is not spawned, the caller must try again later.
+     * Holds the npc lock, so the npc is not released while it is spawned.
      *
      * @param user The player to spawn the npc for.
      * @throws IllegalStateException If the given user is already a viewer.
      */
-    public void spawn(ZUser user) {
+    public synchronized void spawn(ZUser user) {
         if (viewers.contains(user)) {
             throw new IllegalStateException(user.getUUID().toString() + " is already a viewer.");
         }
+        if (!materialized) {
+            if (!Bukkit.isPrimaryThread()) {
+                // the entity is created from the world, spawned on the next pass
+                runOnMainThread(this::materialize);
+                return;
+            }
+            materialize();
+        }
         try {
             final boolean npcIsPlayer = npcPojo.getNpcType() == NPCType.PLAYER;
             // check for scoreboard packets
@@ -307,15 +573,13 @@ public class NPC {
                 scoreboardPackets.forEach(p -> Utils.sendPackets(user, p));
             }
             if (npcIsPlayer) {
-                if (FunctionFactory.isTrue(this, "mirror")) {
-                    // set npc skin to the player skin
-                    updateProfile(user.getGameProfile().getProperties());
-                }
-                // add npc to tabList
-                Utils.sendPackets(user, tabConstructor);
+                // add npc to tabList, the mirror npcs use the viewer skin
+                Utils.sendPackets(user, FunctionFactory.isTrue(this, "mirror") ? getMirrorTabPacket(user) : tabConstructor);
             }
             // send npc spawn packets
-            Utils.sendPackets(user, packets.getProxyInstance().getSpawnPacket(nmsEntity, npcIsPlayer));
+            Utils.sendPackets(user, isVirtual() ?
+                packets.getProxyInstance().getVirtualSpawnPacket(this) :
+                packets.getProxyInstance().getSpawnPacket(nmsEntity, npcIsPlayer));
             if (FunctionFactory.isTrue(this, "holo")) {
                 hologram.spawn(user);
             }
@@ -325,7 +589,7 @@ public class NPC {
             // fix npc rotation
             lookAt(user, getLocation(), true);
             if (npcIsPlayer) {
-                Object removeTabPacket = packets.getProxyInstance().getTabRemovePacket(nmsEntity);
+                Object removeTabPacket = getTabRemovePacket();
                 ServersNPC.SCHEDULER.scheduleSyncDelayedTask(() -> Utils.sendPackets(user, removeTabPacket), 60);
             }
         } catch (ReflectiveOperationException operationException) {
@@ -345,7 +609,7 @@ public class NPC {
         }
         try {
             if (npcPojo.getNpcType() == NPCType.PLAYER) {
-                packets.getProxyInstance().getTabRemovePacket(nmsEntity);
+                getTabRemovePacket();
             }
             hologram.delete(user);
             Utils.sendPackets(user, packets.getProxyInstance().getDestroyPacket(entityID));
@@ -369,11 +633,16 @@ public class NPC {
             lastMoveNanos < Utils.SECOND_INTERVAL_NANOS) {
             return;
         }
+        if (!hasEntity()) {
+            return;
+        }
         // set the location direction
         Location direction = (rotation ? location : npcPojo.getLocation().bukkitLocation().clone().setDirection(location.clone().subtract(npcPojo.getLocation().bukkitLocation().clone()).toVector()));
         try {
             Object lookPacket = CacheRegistry.PACKET_PLAY_OUT_ENTITY_LOOK_CONSTRUCTOR.newInstance(entityID, (byte) (direction.getYaw() * 256.0F / 360.0F), (byte) (direction.getPitch() * 256.0F / 360.0F), true);
-            Object headRotationPacket = CacheRegistry.PACKET_PLAY_OUT_ENTITY_HEAD_ROTATION_CONSTRUCTOR.newInstance(nmsEntity, (byte) (direction.getYaw() * 256.0F / 360.0F));
+            Object headRotationPacket = isVirtual() ?
+                VirtualEntity.headRotationPacket(entityID, (byte) (direction.getYaw() * 256.0F / 360.0F)) :
+                CacheRegistry.PACKET_PLAY_OUT_ENTITY_HEAD_ROTATION_CONSTRUCTOR.newInstance(nmsEntity, (byte) (direction.getYaw() * 256.0F / 360.0F));
             if (player != null) {
                 Utils.sendPackets(player, lookPacket, headRotationPacket);
             } else {
@@ -403,7 +672,10 @@ public class NPC {
      */
     protected void updateMetadata(Iterable<ZUser> users) {
         try {
-            Object metaData = packets.getProxyInstance().getMetadataPacket(entityID, nmsEntity);
+            Object metaData = isVirtual() ?
+                packets.getProxyInstance().getVirtualMetadataPacket(entityID, entityFlags,
+                    npcPojo.getNpcType() == NPCType.PLAYER ? npcSkin.getLayerIndex() : -1) :
+                packets.getProxyInstance().getMetadataPacket(entityID, nmsEntity);
             for (ZUser user : users) {
                 Utils.sendPackets(user, metaData);
             }
@@ -420,6 +692,11 @@ public class NPC {
             return;
         }
         try {
+            if (isVirtual()) {
+                // the virtual packets are created from the npc profile
+                Utils.setValue(gameProfile, "properties", propertyMap);
+                return;
+            }
             Object gameProfileObj = CacheRegistry.GET_PROFILE_METHOD.invoke(nmsEntity);
             Utils.setValue(gameProfileObj, "name", gameProfile.getName());
             Utils.setValue(gameProfileObj, "id", gameProfile.getId());
@@ -429,6 +706,39 @@ public class NPC {
         }
     }
 
+    /**
+     * Returns the tab list add packet for the npc with the skin of the given viewer.
+     * <p>
+     * The npc profile is not modified, the packet is created from a copy of the
+     * profile and reused while the npc entity and the viewer skin do not change.
+     *
+     * @param user The viewer.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    private Object getMirrorTabPacket(ZUser user) throws ReflectiveOperationException {
+        final Collection<Property> skinProperties = user.getSkinProperties();
+        MirrorTabPacket mirrorTabPacket = mirrorTabPackets.get(user);
+        if (mirrorTabPacket == null || mirrorTabPacket.skinProperties != skinProperties) {
+            final GameProfile mirrorProfile = new GameProfile(gameProfile.getId(), gameProfile.getName());
+            mirrorProfile.getProperties().putAll(PROFILE_TEXTURES, skinProperties);
+            mirrorTabPacket = new MirrorTabPacket(skinProperties,
+                VirtualEntity.playerInfoPacket(CacheRegistry.ADD_PLAYER_FIELD, mirrorProfile));
+            mirrorTabPackets.put(user, mirrorTabPacket);
+        }
+        return mirrorTabPacket.packet;
+    }
+
+    /**
+     * Returns the tab list remove packet for the npc.
+     *
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    private Object getTabRemovePacket() throws ReflectiveOperationException {
+        return isVirtual() ?
+            packets.getProxyInstance().getVirtualTabRemovePacket(gameProfile) :
+            packets.getProxyInstance().getTabRemovePacket(nmsEntity);
+    }
+
     /**
      * @inheritDoc
      */
@@ -492,6 +802,16 @@ public class NPC {
         return NPC_MAP.get(id);
     }
 
+    /**
+     * Tries to locate a npc for the given entity id, the npc entity or one of its hologram entities.
+     *
+     * @param entityId The entity id.
+     * @return The found npc, or {@code null} if the entity is not a npc.
+     */
+    public static NPC findByEntityId(int entityId) {
+        return ENTITY_ID_MAP.get(entityId);
+    }
+
     /**
      * Unregisters a npc with the given {@code id}.
      *
@@ -505,6 +825,7 @@ public class NPC {
         }
         NPC_MAP.remove(id);
         npc.deleteViewers();
+        npc.release();
     }
 
     /**
@@ -513,4 +834,23 @@ public class NPC {
     public static Collection<NPC> all() {
         return NPC_MAP.values();
     }
+
+    /**
+     * A mirror tab list packet and the viewer skin it was created with.
+     */
+    private static final class MirrorTabPacket {
+        /** The viewer skin properties. */
+        private final Collection<Property> skinProperties;
+        /** The tab list add packet. */
+        private final Object packet;
+
+        /**
+         * @param skinProperties The viewer skin properties.
+         * @param packet The tab list add packet.
+         */
+        private MirrorTabPacket(Collection<Property> skinProperties, Object packet) {
+            this.skinProperties = skinProperties;
+            this.packet = packet;
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package io.github.znetworkw.znpcservers.npc;
 
+import io.github.znetworkw.znpcservers.configuration.Copyable;
 import io.github.znetworkw.znpcservers.npc.conversation.ConversationModel;
 import io.github.znetworkw.znpcservers.utility.location.ZLocation;
 import org.bukkit.inventory.ItemStack;
@@ -9,7 +10,7 @@ import java.util.*;
 /**
  * Contains information about a {@link NPC}.
  */
-public class NPCModel {
+public class NPCModel implements Copyable<NPCModel> {
     private static final String EMPTY_STRING = "";
     /**
      * The npc id.
@@ -21,6 +22,10 @@ public class NPCModel {
     private double hologramHeight;
     /** The texture & signature for the npc skin. */
     private String skin, signature="";
+    /** The player name or url the npc skin was fetched from. */
+    private String skinName;
+    /** The time the npc skin was fetched, in milliseconds. */
+    private long skinTime;
     /** The npc path name. */
     private String pathName;
     /** The name for the glow color. */
@@ -167,6 +172,58 @@ public class NPCModel {
         return this;
     }
 
+    /**
+     * Returns the player name or url the npc skin was fetched from.
+     *
+     * @return The npc skin name, or {@code null} if the skin was set from its values.
+     */
+    public String getSkinName() {
+        return skinName;
+    }
+
+    /**
+     * Sets the {@link #getSkinName()} of this object.
+     *
+     * @param skinName The npc skin name.
+     */
+    public void setSkinName(String skinName) {
+        this.skinName = skinName;
+    }
+
+    /**
+     * Returns the current object with a new {@code skinName}.
+     */
+    public NPCModel withSkinName(String skinName) {
+        setSkinName(skinName);
+        return this;
+    }
+
+    /**
+     * Returns the time the npc skin was fetched.
+     *
+     * @return The npc skin time, in milliseconds.
+     */
+    public long getSkinTime() {
+        return skinTime;
+    }
+
+    /**
+     * Sets the {@link #getSkinTime()} of this object.
+     *
+     * @param skinTime The npc skin time, in milliseconds.
+     */
+    public void setSkinTime(long skinTime) {
+        this.skinTime = skinTime;
+    }
+
+    /**
+     * Returns the current object with a new {@code skinTime}.
+     */
+    public NPCModel withSkinTime(long skinTime) {
+        setSkinTime(skinTime);
+        return this;
+    }
+
     /**
      * Returns the npc path name.
      *
@@ -427,4 +484,30 @@ public class NPCModel {
         setFunctions(npcFunctions);
         return this;
     }
+
+    @Override
+    public NPCModel copy() {
+        final NPCModel npcModel = new NPCModel();
+        npcModel.id = id;
+        npcModel.hologramHeight = hologramHeight;
+        npcModel.skin = skin;
+        npcModel.signature = signature;
+        npcModel.skinName = skinName;
+        npcModel.skinTime = skinTime;
+        npcModel.pathName = pathName;
+        npcModel.glowName = glowName;
+        npcModel.conversation = conversation;
+        npcModel.location = location;
+        npcModel.npcType = npcType;
+        npcModel.hologramLines = new ArrayList<>(hologramLines);
+        npcModel.clickActions = new ArrayList<>(clickActions.size());
+        // the action delay is changed in place
+        clickActions.forEach(npcAction -> npcModel.clickActions.add(npcAction.copy()));
+        npcModel.npcEquip = new HashMap<>(npcEquip.size());
+        // the equipment can be a live item of a player inventory
+        npcEquip.forEach((itemSlot, itemStack) -> npcModel.npcEquip.put(itemSlot, itemStack == null ? null : itemStack.clone()));
+        npcModel.npcFunctions = new HashMap<>(npcFunctions);
+        npcModel.customizationMap = new HashMap<>(customizationMap);
+        return npcModel;
+    }
 }
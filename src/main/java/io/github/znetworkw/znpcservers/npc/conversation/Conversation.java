@@ -1,6 +1,7 @@
 package io.github.znetworkw.znpcservers.npc.conversation;
 
 import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import io.github.znetworkw.znpcservers.configuration.Copyable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +11,7 @@ import java.util.stream.StreamSupport;
 /**
  * Represents a conversation.
  */
-public class Conversation {
+public class Conversation implements Copyable<Conversation> {
     /**
      * The conversation name.
      */
@@ -120,6 +121,18 @@ public class Conversation {
         this.radius = radius;
     }
 
+    @Override
+    public Conversation copy() {
+        final List<ConversationKey> textsCopy = new ArrayList<>(texts.size());
+        for (ConversationKey conversationKey : texts) {
+            textsCopy.add(conversationKey.copy());
+        }
+        final Conversation conversation = new Conversation(name, textsCopy);
+        conversation.radius = radius;
+        conversation.delay = delay;
+        return conversation;
+    }
+
     /**
      * Finds a conversation by its name, if no conversation is found
      * the method will return {@code null}.
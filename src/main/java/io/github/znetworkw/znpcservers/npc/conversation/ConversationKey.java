@@ -1,5 +1,6 @@
 package io.github.znetworkw.znpcservers.npc.conversation;
 
+import io.github.znetworkw.znpcservers.configuration.Copyable;
 import io.github.znetworkw.znpcservers.npc.NPCAction;
 import com.google.common.base.Splitter;
 
@@ -14,7 +15,7 @@ import java.util.stream.StreamSupport;
  *
  * @see Conversation
  */
-public class ConversationKey {
+public class ConversationKey implements Copyable<ConversationKey> {
     private static final Splitter SPACE_SPLITTER = Splitter.on(" ");
 
     /**
@@ -57,6 +58,15 @@ public class ConversationKey {
         actions = new ArrayList<>();
     }
 
+    @Override
+    public ConversationKey copy() {
+        final ConversationKey conversationKey = new ConversationKey(lines);
+        actions.forEach(npcAction -> conversationKey.actions.add(npcAction.copy()));
+        conversationKey.delay = delay;
+        conversationKey.soundName = soundName;
+        return conversationKey;
+    }
+
     /**
      * Returns the key text lines.
      */
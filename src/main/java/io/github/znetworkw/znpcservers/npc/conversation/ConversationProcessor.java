@@ -113,7 +113,7 @@ public class ConversationProcessor {
                 // send text to player
                 conversationKey.getLines().forEach(s -> player.sendMessage(LineReplacer.makeAll(user, s).replace(ConfigurationConstants.SPACE_SYMBOL, WHITE_SPACE)));
                 if (conversationKey.getActions().size() > 0) { // check for conversation actions
-                    conversationKey.getActions().forEach(action -> action.run(user, action.getAction()));
+                    conversationKey.getActions().forEach(action -> action.run(user));
                 }
                 // send sound
                 if (conversationKey.getSoundName() != null
@@ -22,11 +22,7 @@ public class GlowFunction extends NPCFunction {
             final Object glowColor = CacheRegistry.ENUM_CHAT_FORMAT_FIND.invoke(null,
                 glowColorName == null || glowColorName.length() == 0 ? "WHITE" : glowColorName);
             npc.setGlowColor(glowColor);
-            CacheRegistry.SET_DATA_WATCHER_METHOD.invoke(CacheRegistry.GET_DATA_WATCHER_METHOD.invoke(npc.getNmsEntity()),
-                CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(
-                    0,
-                    CacheRegistry.DATA_WATCHER_REGISTER_FIELD),
-                !FunctionFactory.isTrue(npc, this) ? (byte) 0x40 : (byte) 0x0);
+            npc.setEntityFlags(!FunctionFactory.isTrue(npc, this) ? (byte) 0x40 : (byte) 0x0);
             // update glow scoreboard packets
             npc.getPackets().getProxyInstance().update(npc.getPackets());
             npc.deleteViewers();
@@ -1,36 +1,62 @@
 package io.github.znetworkw.znpcservers.npc.hologram;
 
+import com.google.common.collect.ImmutableList;
 import io.github.znetworkw.znpcservers.UnexpectedCallException;
 import io.github.znetworkw.znpcservers.configuration.Configuration;
 import io.github.znetworkw.znpcservers.configuration.ConfigurationValue;
 import io.github.znetworkw.znpcservers.npc.NPC;
-import io.github.znetworkw.znpcservers.cache.CacheRegistry;
 import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
 import io.github.znetworkw.znpcservers.npc.hologram.replacer.LineReplacer;
+import io.github.znetworkw.znpcservers.npc.packet.PacketFactory;
+import io.github.znetworkw.znpcservers.npc.packet.VirtualEntity;
 import io.github.znetworkw.znpcservers.user.ZUser;
 import io.github.znetworkw.znpcservers.utility.Utils;
 import org.bukkit.Location;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Represents a hologram.
+ * <p>
+ * The hologram lines are virtual entities, they only exist on the client side
+ * and their packets are created from the line values.
+ * <p>
+ * The lines are immutable and replaced as a whole on every change, the names of each viewer
+ * are rendered into a new value and never written to a shared object, so the hologram can be
+ * rendered for different viewers at the same time.
+ * <p>
+ * If the server version support text display entities the whole hologram is
+ * rendered as a single text display entity, otherwise each line is an armor stand.
  */
 public class Hologram {
     /** A string whitespace. */
     private static final String WHITESPACE = " ";
-    /** Determines if new line method should be used. */
-    private static final boolean NEW_METHOD = Utils.BUKKIT_VERSION > 12;
     /** The height between lines. */
     private static final double LINE_SPACING = Configuration.CONFIGURATION.getValue(ConfigurationValue.LINE_SPACING);
+    /** Determines if the hologram should be rendered as a single text display entity. */
+    private static final boolean TEXT_DISPLAY = PacketFactory.PACKET_FOR_CURRENT_VERSION.supportsTextDisplay();
+    /** The new line char for the text display. */
+    private static final char NEW_LINE = '\n';
+
+    /** The last rendered names for each viewer. */
+    private final ConcurrentMap<ZUser, RenderedNames> viewerNames = new ConcurrentHashMap<>();
 
     /** A list of hologram lines. */
-    private final List<HologramLine> hologramLines = new ArrayList<>();
+    private volatile ImmutableList<HologramLine> hologramLines = ImmutableList.of();
+    /** The last additional height of the hologram. */
+    private volatile double height = 0;
     /** The npc. */
     private final NPC npc;
+    /** The text display entity id, used only if the hologram is a text display. */
+    private final int displayId;
+    /** The text display entity uuid, used only if the hologram is a text display. */
+    private final UUID displayUuid;
 
     /**
      * Creates a new {@link Hologram} for the given npc.
@@ -39,6 +65,8 @@ public class Hologram {
      */
     public Hologram(NPC npc) {
         this.npc = npc;
+        this.displayId = TEXT_DISPLAY ? VirtualEntity.nextEntityId() : -1;
+        this.displayUuid = TEXT_DISPLAY ? UUID.randomUUID() : null;
     }
 
     /**
@@ -46,29 +74,135 @@ public class Hologram {
      */
     public void createHologram() {
         npc.getViewers().forEach(this::delete);
-        try {
-            hologramLines.clear();
-            double y = 0;
-            final Location location = npc.getLocation();
+        ImmutableList.Builder<HologramLine> builder = ImmutableList.builder();
+        for (String line : npc.getNpcPojo().getHologramLines()) {
+            builder.add(new HologramLine(toLineText(line), isLineVisible(line)));
+        }
+        final ImmutableList<HologramLine> oldLines = hologramLines;
+        hologramLines = builder.build();
+        indexLines(oldLines, hologramLines);
+        viewerNames.clear();
+        updatePositions(npc.getLocation(), 0);
+        npc.getViewers().forEach(this::spawn);
+    }
+
+    /**
+     * Releases the hologram lines, the hologram must be created again with {@link #createHologram()}.
+     *
+     * @throws IllegalStateException If the npc has viewers.
+     */
+    public void release() {
+        if (!npc.getViewers().isEmpty()) {
+            throw new IllegalStateException("can't release a hologram with viewers.");
+        }
+        indexLines(hologramLines, ImmutableList.of());
+        hologramLines = ImmutableList.of();
+        viewerNames.clear();
+    }
+
+    /**
+     * Updates the hologram to the current npc lines & height.
+     * <p>
+     * Unlike {@link #createHologram()} the entities of the unchanged lines are kept,
+     * only the shifted lines are teleported, the changed lines are updated and
+     * the added or removed lines are spawned or destroyed for the viewers.
+     * The npc lines are saved with the next save.
+     */
+    public void updateLines() {
+        Configuration.DATA.markDirty();
+        final ImmutableList<HologramLine> oldLines = hologramLines;
+        if (TEXT_DISPLAY) {
+            if (oldLines.isEmpty() || npc.getNpcPojo().getHologramLines().isEmpty()) {
+                // the text display must be spawned or destroyed
+                createHologram();
+                return;
+            }
+            ImmutableList.Builder<HologramLine> builder = ImmutableList.builder();
             for (String line : npc.getNpcPojo().getHologramLines()) {
-                boolean visible = !line.equalsIgnoreCase("%space%"); // determine if the line should be seen
-                Object armorStand = CacheRegistry.ENTITY_CONSTRUCTOR.newInstance(CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(location.getWorld()),
-                        location.getX(), (location.getY() - 0.15) + (y), location.getZ());
-                if (visible) {
-                    CacheRegistry.SET_CUSTOM_NAME_VISIBLE_METHOD.invoke(armorStand, true); // entity name is not visible by default
-                    updateLine(line, armorStand, null);
+                builder.add(new HologramLine(toLineText(line), isLineVisible(line)));
+            }
+            hologramLines = builder.build();
+            indexLines(oldLines, hologramLines);
+            setLocation(npc.getLocation(), height);
+            npc.getViewers().forEach(this::updateNames);
+            return;
+        }
+        final List<String> newLines = npc.getNpcPojo().getHologramLines();
+        final String[] texts = new String[newLines.size()];
+        final boolean[] visibles = new boolean[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = toLineText(newLines.get(i));
+            visibles[i] = isLineVisible(newLines.get(i));
+        }
+        final HologramLine[] lines = new HologramLine[texts.length];
+        final HologramLine[] previousLines = new HologramLine[texts.length];
+        final boolean[] usedLines = new boolean[oldLines.size()];
+        // keep the entities of the unchanged lines at the same index
+        for (int i = 0; i < Math.min(texts.length, usedLines.length); i++) {
+            if (oldLines.get(i).isSameLine(texts[i], visibles[i])) {
+                usedLines[i] = true;
+                previousLines[i] = lines[i] = oldLines.get(i);
+            }
+        }
+        // keep the entities of the unchanged lines that were moved
+        for (int i = 0; i < texts.length; i++) {
+            for (int oldIndex = 0; lines[i] == null && oldIndex < usedLines.length; oldIndex++) {
+                if (!usedLines[oldIndex] && oldLines.get(oldIndex).isSameLine(texts[i], visibles[i])) {
+                    usedLines[oldIndex] = true;
+                    previousLines[i] = lines[i] = oldLines.get(oldIndex);
                 }
-                CacheRegistry.SET_INVISIBLE_METHOD.invoke(armorStand, true);
-                hologramLines.add(new HologramLine(line.replace(ConfigurationConstants.SPACE_SYMBOL, WHITESPACE),
-                        armorStand, (Integer) CacheRegistry.GET_ENTITY_ID.invoke(armorStand)));
-                y+=LINE_SPACING;
-            }
-            setLocation(location, 0);
-            npc.getPackets().flushCache("getHologramSpawnPacket");
-            npc.getViewers().forEach(this::spawn);
+            }
+        }
+        // reuse the entities of the changed lines, create new entities for the added lines
+        int oldIndex = 0;
+        for (int i = 0; i < texts.length; i++) {
+            if (lines[i] != null) {
+                continue;
+            }
+            while (oldIndex < usedLines.length && usedLines[oldIndex]) {
+                oldIndex++;
+            }
+            if (oldIndex < usedLines.length) {
+                usedLines[oldIndex] = true;
+                previousLines[i] = oldLines.get(oldIndex);
+                lines[i] = previousLines[i].withText(texts[i], visibles[i]);
+            } else {
+                lines[i] = new HologramLine(texts[i], visibles[i]);
+            }
+        }
+        hologramLines = positionLines(ImmutableList.copyOf(lines), npc.getLocation(), height);
+        indexLines(oldLines, hologramLines);
+        npc.getPackets().flushCache("hologramSpawnPacket");
+        final ImmutableList<HologramLine> positionedLines = hologramLines;
+        try {
+            // destroy the removed lines
+            for (int i = 0; i < usedLines.length; i++) {
+                if (usedLines[i]) {
+                    continue;
+                }
+                final Object destroyPacket = npc.getPackets().getProxyInstance().getDestroyPacket(oldLines.get(i).id);
+                npc.getViewers().forEach(user -> Utils.sendPackets(user, destroyPacket));
+            }
+            for (int i = 0; i < positionedLines.size(); i++) {
+                final HologramLine hologramLine = positionedLines.get(i);
+                final HologramLine previousLine = previousLines[i];
+                final Object packet;
+                if (previousLine == null) { // spawn the added lines
+                    packet = npc.getPackets().getProxyInstance().getHologramSpawnPacket(hologramLine.id,
+                        hologramLine.uuid, hologramLine.x, hologramLine.y, hologramLine.z);
+                } else if (!previousLine.isSamePosition(hologramLine)) { // teleport the shifted lines
+                    packet = npc.getPackets().getProxyInstance().getHologramTeleportPacket(hologramLine.id,
+                        hologramLine.x, hologramLine.y, hologramLine.z);
+                } else {
+                    continue;
+                }
+                npc.getViewers().forEach(user -> Utils.sendPackets(user, packet));
+            }
         } catch (ReflectiveOperationException operationException) {
             throw new UnexpectedCallException(operationException);
         }
+        // send the names of the new & changed lines
+        npc.getViewers().forEach(this::updateNames);
     }
 
     /**
@@ -77,15 +211,36 @@ public class Hologram {
      * @param user The player to spawn the hologram for.
      */
     public void spawn(ZUser user) {
-        hologramLines.forEach(hologramLine -> {
+        final ImmutableList<HologramLine> lines = hologramLines;
+        final RenderedNames renderedNames = new RenderedNames(lines, user);
+        if (TEXT_DISPLAY) {
+            if (lines.isEmpty()) {
+                return;
+            }
+            try {
+                final HologramLine firstLine = lines.get(0);
+                Utils.sendPackets(user,
+                    npc.getPackets().getProxyInstance().getTextDisplaySpawnPacket(displayId, displayUuid, firstLine.x, firstLine.y, firstLine.z),
+                    npc.getPackets().getProxyInstance().getTextDisplayMetadataPacket(displayId, renderedNames.toDisplayText()));
+            } catch (ReflectiveOperationException operationException) {
+                delete(user);
+                return;
+            }
+            viewerNames.put(user, renderedNames);
+            return;
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            final HologramLine hologramLine = lines.get(i);
             try {
                 Object entityPlayerPacketSpawn = npc.getPackets().getProxyInstance()
-                    .getHologramSpawnPacket(hologramLine.armorStand);
-                Utils.sendPackets(user, entityPlayerPacketSpawn);
+                    .getHologramSpawnPacket(hologramLine.id, hologramLine.uuid, hologramLine.x, hologramLine.y, hologramLine.z);
+                Utils.sendPackets(user, entityPlayerPacketSpawn, getMetadataPacket(hologramLine, renderedNames.names[i]));
             } catch (ReflectiveOperationException operationException) {
                 delete(user);
+                return;
             }
-        });
+        }
+        viewerNames.put(user, renderedNames);
     }
 
     /**
@@ -94,6 +249,15 @@ public class Hologram {
      * @param user The player to remove the hologram for.
      */
     public void delete(ZUser user) {
+        viewerNames.remove(user);
+        if (TEXT_DISPLAY) {
+            try {
+                Utils.sendPackets(user, npc.getPackets().getProxyInstance().getDestroyPacket(displayId));
+            } catch (ReflectiveOperationException operationException) {
+                throw new UnexpectedCallException(operationException);
+            }
+            return;
+        }
         hologramLines.forEach(hologramLine -> {
             try {
                 Utils.sendPackets(user, npc.getPackets().getProxyInstance().getDestroyPacket(hologramLine.id));
@@ -105,16 +269,34 @@ public class Hologram {
 
     /**
      * Updates the hologram text for the given player.
+     * <p>
+     * Only the lines that changed since the last update are sent to the player,
+     * can be called for different players at the same time.
      *
      * @param user The player to update the hologram for.
      */
     public void updateNames(ZUser user) {
-        for (HologramLine hologramLine : hologramLines) {
+        final ImmutableList<HologramLine> lines = hologramLines;
+        final RenderedNames renderedNames = new RenderedNames(lines, user);
+        final RenderedNames lastRenderedNames = viewerNames.put(user, renderedNames);
+        if (TEXT_DISPLAY) {
+            if (lines.isEmpty() || (lastRenderedNames != null && lastRenderedNames.isSameNames(renderedNames))) {
+                return;
+            }
+            try {
+                Utils.sendPackets(user, npc.getPackets().getProxyInstance().getTextDisplayMetadataPacket(displayId, renderedNames.toDisplayText()));
+            } catch (ReflectiveOperationException operationException) {
+                throw new UnexpectedCallException(operationException);
+            }
+            return;
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            if (lastRenderedNames != null && lastRenderedNames.isSameName(renderedNames, i)) {
+                continue;
+            }
             try {
-                updateLine(hologramLine.line, hologramLine.armorStand, user);
                 // update the line
-                Utils.sendPackets(user, CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_CONSTRUCTOR.newInstance(
-                    hologramLine.id, CacheRegistry.GET_DATA_WATCHER_METHOD.invoke(hologramLine.armorStand), true));
+                Utils.sendPackets(user, getMetadataPacket(lines.get(i), renderedNames.names[i]));
             } catch (ReflectiveOperationException operationException) {
                 throw new UnexpectedCallException(operationException);
             }
@@ -125,9 +307,23 @@ public class Hologram {
      * Updates the hologram location.
      */
     public void updateLocation() {
+        if (TEXT_DISPLAY) {
+            if (hologramLines.isEmpty()) {
+                return;
+            }
+            final HologramLine firstLine = hologramLines.get(0);
+            try {
+                Object packet = npc.getPackets().getProxyInstance().getHologramTeleportPacket(displayId, firstLine.x, firstLine.y, firstLine.z);
+                npc.getViewers().forEach(player -> Utils.sendPackets(player, packet));
+            } catch (ReflectiveOperationException operationException) {
+                throw new UnexpectedCallException(operationException);
+            }
+            return;
+        }
         hologramLines.forEach(hologramLine -> {
             try {
-                Object packet = CacheRegistry.PACKET_PLAY_OUT_ENTITY_TELEPORT_CONSTRUCTOR.newInstance(hologramLine.armorStand);
+                Object packet = npc.getPackets().getProxyInstance().getHologramTeleportPacket(hologramLine.id,
+                    hologramLine.x, hologramLine.y, hologramLine.z);
                 npc.getViewers().forEach(player -> Utils.sendPackets(player, packet));
             } catch (ReflectiveOperationException operationException) {
                 throw new UnexpectedCallException(operationException);
@@ -141,38 +337,104 @@ public class Hologram {
      * @param location The new location.
      */
     public void setLocation(Location location, double height) {
-        location = location.clone().add(0, height, 0);
-        try {
-            double y = npc.getNpcPojo().getHologramHeight();
-            for (HologramLine hologramLine : hologramLines) {
-                CacheRegistry.SET_LOCATION_METHOD.invoke(hologramLine.armorStand,
-                        location.getX(), (location.getY() - 0.15) + y,
-                        location.getZ(), location.getYaw(), location.getPitch());
-                y+=LINE_SPACING;
-            }
-            updateLocation();
-        } catch (ReflectiveOperationException operationException) {
-            throw new UnexpectedCallException(operationException);
+        updatePositions(location, height);
+        updateLocation();
+    }
+
+    /**
+     * Calculates the position of each hologram line for the given location.
+     *
+     * @param location The hologram location.
+     * @param height The additional height for the hologram.
+     */
+    private void updatePositions(Location location, double height) {
+        this.height = height;
+        hologramLines = positionLines(hologramLines, location, height);
+        // the spawn packets contains the old positions
+        npc.getPackets().flushCache("hologramSpawnPacket", "textDisplaySpawnPacket");
+    }
+
+    /**
+     * Returns a copy of the given lines positioned for the given location.
+     *
+     * @param lines The hologram lines.
+     * @param location The hologram location.
+     * @param height The additional height for the hologram.
+     * @return The positioned lines.
+     */
+    private ImmutableList<HologramLine> positionLines(ImmutableList<HologramLine> lines,
+                                                     Location location,
+                                                     double height) {
+        double y = location.getY() + height - 0.15 + npc.getNpcPojo().getHologramHeight();
+        ImmutableList.Builder<HologramLine> builder = ImmutableList.builder();
+        for (HologramLine hologramLine : lines) {
+            builder.add(hologramLine.withPosition(location.getX(), y, location.getZ()));
+            y+=LINE_SPACING;
         }
+        return builder.build();
     }
 
     /**
-     * Updates a hologram line.
+     * Updates the registered npc entity ids for the new hologram lines.
      *
-     * @param line The new hologram line.
-     * @param armorStand The hologram entity line.
-     * @param user The player to update the line for.
-     * @throws InvocationTargetException If cannot invoke method.
-     * @throws IllegalAccessException If the method cannot be accessed.
+     * @param oldLines The previous hologram lines.
+     * @param newLines The new hologram lines.
      */
-    private void updateLine(String line,
-                            Object armorStand,
-                            @Nullable ZUser user) throws InvocationTargetException, IllegalAccessException {
-        if (NEW_METHOD) {
-            CacheRegistry.SET_CUSTOM_NAME_NEW_METHOD.invoke(armorStand, CacheRegistry.CRAFT_CHAT_MESSAGE_METHOD.invoke(null, LineReplacer.makeAll(user, line)));
-        } else {
-            CacheRegistry.SET_CUSTOM_NAME_OLD_METHOD.invoke(armorStand, LineReplacer.makeAll(user, line));
+    private void indexLines(ImmutableList<HologramLine> oldLines,
+                            ImmutableList<HologramLine> newLines) {
+        if (TEXT_DISPLAY) {
+            if (newLines.isEmpty()) {
+                npc.unregisterEntityId(displayId);
+            } else {
+                npc.registerEntityId(displayId);
+            }
+            return;
+        }
+        for (HologramLine hologramLine : newLines) {
+            npc.registerEntityId(hologramLine.id);
         }
+        for (HologramLine oldLine : oldLines) {
+            boolean kept = false;
+            for (int i = 0; !kept && i < newLines.size(); i++) {
+                kept = newLines.get(i).id == oldLine.id;
+            }
+            if (!kept) {
+                npc.unregisterEntityId(oldLine.id);
+            }
+        }
+    }
+
+    /**
+     * Converts the given npc line to the hologram line text.
+     *
+     * @param line The npc line.
+     * @return The hologram line text.
+     */
+    private static String toLineText(String line) {
+        return line.replace(ConfigurationConstants.SPACE_SYMBOL, WHITESPACE);
+    }
+
+    /**
+     * Returns {@code true} if the given npc line text should be seen.
+     *
+     * @param line The npc line.
+     * @return {@code true} If the given npc line text should be seen.
+     */
+    private static boolean isLineVisible(String line) {
+        return !line.equalsIgnoreCase("%space%");
+    }
+
+    /**
+     * Creates the meta data packet of a hologram line.
+     *
+     * @param hologramLine The hologram line.
+     * @param name The rendered line name.
+     * @return The meta data packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    private Object getMetadataPacket(HologramLine hologramLine,
+                                     @Nullable String name) throws ReflectiveOperationException {
+        return npc.getPackets().getProxyInstance().getHologramMetadataPacket(hologramLine.id, name);
     }
 
     /**
@@ -181,24 +443,172 @@ public class Hologram {
     private static class HologramLine {
         /** The hologram line string. */
         private final String line;
-        /** The hologram line entity. */
-        private final Object armorStand;
+        /** Determines if the line text should be seen. */
+        private final boolean visible;
         /** The hologram line entity id. */
         private final int id;
+        /** The hologram line entity uuid. */
+        private final UUID uuid;
+        /** The hologram line position. */
+        private final double x, y, z;
 
         /**
          * Creates a new line for the hologram.
          *
          * @param line The hologram line string.
-         * @param armorStand The hologram entity.
-         * @param id The hologram entity id.
+         * @param visible Determines if the line text should be seen.
          */
         protected HologramLine(String line,
-                             Object armorStand,
-                             int id) {
+                               boolean visible) {
+            this(line, visible, VirtualEntity.nextEntityId(), UUID.randomUUID(), 0, 0, 0);
+        }
+
+        /**
+         * Creates a new line for the hologram.
+         *
+         * @param line The hologram line string.
+         * @param visible Determines if the line text should be seen.
+         * @param id The hologram line entity id.
+         * @param uuid The hologram line entity uuid.
+         * @param x The hologram line x position.
+         * @param y The hologram line y position.
+         * @param z The hologram line z position.
+         */
+        private HologramLine(String line,
+                             boolean visible,
+                             int id,
+                             UUID uuid,
+                             double x,
+                             double y,
+                             double z) {
             this.line = line;
-            this.armorStand = armorStand;
+            this.visible = visible;
             this.id = id;
+            this.uuid = uuid;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        /**
+         * Returns a copy of this line with the given position.
+         *
+         * @param x The new x position.
+         * @param y The new y position.
+         * @param z The new z position.
+         * @return A copy of this line with the given position.
+         */
+        protected HologramLine withPosition(double x,
+                                            double y,
+                                            double z) {
+            return new HologramLine(line, visible, id, uuid, x, y, z);
+        }
+
+        /**
+         * Returns a copy of this line entity with the given text.
+         *
+         * @param line The new hologram line string.
+         * @param visible Determines if the line text should be seen.
+         * @return A copy of this line entity with the given text.
+         */
+        protected HologramLine withText(String line,
+                                        boolean visible) {
+            return new HologramLine(line, visible, id, uuid, x, y, z);
+        }
+
+        /**
+         * Returns {@code true} if this line has the given text.
+         *
+         * @param line The hologram line string.
+         * @param visible Determines if the line text should be seen.
+         * @return {@code true} If this line has the given text.
+         */
+        protected boolean isSameLine(String line,
+                                     boolean visible) {
+            return this.visible == visible && this.line.equals(line);
+        }
+
+        /**
+         * Returns {@code true} if both lines have the same position.
+         *
+         * @param hologramLine The line to compare.
+         * @return {@code true} If both lines have the same position.
+         */
+        protected boolean isSamePosition(HologramLine hologramLine) {
+            return x == hologramLine.x && y == hologramLine.y && z == hologramLine.z;
+        }
+    }
+
+    /**
+     * The hologram line names rendered for a viewer.
+     */
+    private static class RenderedNames {
+        /** The lines the names were rendered for. */
+        private final ImmutableList<HologramLine> lines;
+        /** The rendered name of each line, {@code null} for non-visible lines. */
+        private final String[] names;
+
+        /**
+         * Renders the names of the given lines for the player.
+         *
+         * @param lines The hologram lines.
+         * @param user The player to render the names for.
+         */
+        protected RenderedNames(ImmutableList<HologramLine> lines,
+                                ZUser user) {
+            this.lines = lines;
+            this.names = new String[lines.size()];
+            for (int i = 0; i < names.length; i++) {
+                final HologramLine hologramLine = lines.get(i);
+                names[i] = hologramLine.visible ? LineReplacer.makeAll(user, hologramLine.line) : null;
+            }
+        }
+
+        /**
+         * Returns {@code true} if the line entity at the given index of the
+         * given rendered names was rendered with the same name on these names.
+         *
+         * @param renderedNames The rendered names to compare.
+         * @param index The line index on the given rendered names.
+         * @return {@code true} If the line entity has the same name.
+         */
+        protected boolean isSameName(RenderedNames renderedNames,
+                                     int index) {
+            final int id = renderedNames.lines.get(index).id;
+            for (int i = 0; i < names.length; i++) {
+                if (lines.get(i).id == id) {
+                    return Objects.equals(names[i], renderedNames.names[index]);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns {@code true} if all the lines have the same name on both rendered names.
+         *
+         * @param renderedNames The rendered names to compare.
+         * @return {@code true} If all the lines have the same name.
+         */
+        protected boolean isSameNames(RenderedNames renderedNames) {
+            return Arrays.equals(names, renderedNames.names);
+        }
+
+        /**
+         * Returns the text display text for the rendered names, the first line is the bottom line.
+         *
+         * @return The text display text.
+         */
+        protected String toDisplayText() {
+            final StringBuilder stringBuilder = new StringBuilder();
+            for (int i = names.length - 1; i >= 0; i--) {
+                if (names[i] != null) {
+                    stringBuilder.append(names[i]);
+                }
+                if (i > 0) {
+                    stringBuilder.append(NEW_LINE);
+                }
+            }
+            return stringBuilder.toString();
         }
     }
 }
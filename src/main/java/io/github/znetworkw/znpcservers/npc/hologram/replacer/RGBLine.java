@@ -2,7 +2,6 @@ package io.github.znetworkw.znpcservers.npc.hologram.replacer;
 
 import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
 import io.github.znetworkw.znpcservers.utility.Utils;
-import net.md_5.bungee.api.ChatColor;
 
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -14,45 +13,93 @@ public class RGBLine implements LineReplacer {
     private static final char HEX_COLOR_CHAR = '#';
     /** Default hex-color-code length. */
     private static final int HEX_COLOR_LENGTH = 6;
+    /** The minecraft color char. */
+    private static final char COLOR_CHAR = '§';
+    /** The char that marks a hex color after the {@link #COLOR_CHAR}. */
+    private static final char HEX_MAGIC_CHAR = 'x';
+    /** The amount of precomputed colors for the rgb animation. */
+    private static final int ANIMATION_FRAMES = 64;
+    /** The precomputed hex digits for each animation frame. */
+    private static final char[][] FRAMES = createFrames();
+    /** A reusable buffer for each thread that builds a line. */
+    private static final ThreadLocal<StringBuilder> LINE_BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    /** The current animation frame, shared by all the viewers. */
+    private static volatile int frame = 0;
 
     @Override
     public String make(String string) {
-        String rgbString = string;
-        for (int i = 0; i < rgbString.length(); i++) {
-            char charAt = rgbString.charAt(i);
+        int hexIndex = string.indexOf(HEX_COLOR_CHAR);
+        if (hexIndex == -1) {
+            // nothing to replace
+            return string;
+        }
+        final StringBuilder stringBuilder = LINE_BUFFER.get();
+        stringBuilder.setLength(0);
+        stringBuilder.append(string, 0, hexIndex);
+        final int length = string.length();
+        // each color on the line takes the next frame, so lines with
+        // multiple colors don't animate with the same color
+        int colorIndex = frame;
+        for (int i = hexIndex; i < length; i++) {
+            char charAt = string.charAt(i);
             // check if the char is supposed to be a hex color code
-            if (charAt == HEX_COLOR_CHAR) {
-                int endIndex = i+HEX_COLOR_LENGTH+1;
-                boolean success = true;
-                StringBuilder hexCodeStringBuilder = new StringBuilder();
-                for (int i2 = i; i2 < endIndex; i2++) {
-                    // check if string length is in range (hex-default length)
-                    if (rgbString.length() - 1 < i2) {
-                        success = false;
-                        break;
-                    }
-                    char hexCode = rgbString.charAt(i2);
-                    hexCodeStringBuilder.append(ConfigurationConstants.RGB_ANIMATION
-                        && hexCode != HEX_COLOR_CHAR ? Integer.toHexString(ThreadLocalRandom.current().nextInt(0xf+1)) : hexCode);
-                }
-                // found RGB Color!
-                if (success) {
-                    try {
-                        // apply RGB Color to string..
-                        rgbString = rgbString.substring(0, i) +
-                            ChatColor.of(hexCodeStringBuilder.toString()) +
-                            rgbString.substring(endIndex);
-                    } catch (Exception e) {
-                        // invalid hex string
-                    }
-                }
+            if (charAt != HEX_COLOR_CHAR || !isHexColor(string, i + 1)) {
+                stringBuilder.append(charAt);
+                continue;
             }
+            // found RGB Color!
+            final char[] animationFrame = ConfigurationConstants.RGB_ANIMATION ? FRAMES[colorIndex++ % ANIMATION_FRAMES] : null;
+            stringBuilder.append(COLOR_CHAR).append(HEX_MAGIC_CHAR);
+            for (int i2 = 0; i2 < HEX_COLOR_LENGTH; i2++) {
+                stringBuilder.append(COLOR_CHAR).append(animationFrame != null ? animationFrame[i2] : string.charAt(i + 1 + i2));
+            }
+            i += HEX_COLOR_LENGTH;
         }
-        return rgbString;
+        return stringBuilder.toString();
     }
 
     @Override
     public boolean isSupported() {
         return Utils.BUKKIT_VERSION > 15;
     }
+
+    /**
+     * Moves the rgb animation to the next frame, called once per tick.
+     */
+    public static void nextFrame() {
+        frame = (frame + 1) % ANIMATION_FRAMES;
+    }
+
+    /**
+     * Returns {@code true} if a valid hex color starts at the given index.
+     *
+     * @param string The string.
+     * @param startIndex The index of the first hex digit.
+     * @return {@code true} If a valid hex color starts at the given index.
+     */
+    private static boolean isHexColor(String string, int startIndex) {
+        if (string.length() < startIndex + HEX_COLOR_LENGTH) {
+            return false;
+        }
+        for (int i = startIndex; i < startIndex + HEX_COLOR_LENGTH; i++) {
+            if (Character.digit(string.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the random hex digits for each animation frame.
+     */
+    private static char[][] createFrames() {
+        final char[][] frames = new char[ANIMATION_FRAMES][HEX_COLOR_LENGTH];
+        for (char[] animationFrame : frames) {
+            for (int i = 0; i < HEX_COLOR_LENGTH; i++) {
+                animationFrame[i] = Character.forDigit(ThreadLocalRandom.current().nextInt(16), 16);
+            }
+        }
+        return frames;
+    }
 }
@@ -3,14 +3,18 @@ package io.github.znetworkw.znpcservers.npc.packet;
 import com.google.common.collect.ImmutableList;
 import com.mojang.authlib.GameProfile;
 import io.github.znetworkw.znpcservers.npc.*;
+import io.github.znetworkw.znpcservers.npc.event.ClickType;
 
 import io.github.znetworkw.znpcservers.cache.CacheRegistry;
 
 import io.github.znetworkw.znpcservers.utility.Utils;
+import org.bukkit.Location;
 import org.bukkit.inventory.ItemStack;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.UUID;
 
 /**
  * Contains a {@link NPC} packets for a bukkit version.
@@ -52,7 +56,7 @@ public interface Packet {
      * @param interactPacket The interact packet.
      * @throws ReflectiveOperationException When failed to call the method.
      */
-    Object getClickType(Object interactPacket) throws ReflectiveOperationException;
+    ClickType getClickType(Object interactPacket) throws ReflectiveOperationException;
 
     /**
      * Returns the meta data packet for the given nms entity.
@@ -63,13 +67,114 @@ public interface Packet {
     Object getMetadataPacket(int entityId, Object nmsEntity) throws ReflectiveOperationException;
 
     /**
-     * Returns the spawn packet for the given hologram entity.
+     * Returns the meta data packet for a virtual npc.
      *
-     * @param armorStand The hologram entity.
+     * @param entityId The npc entity id.
+     * @param entityFlags The npc entity flags (index 0).
+     * @param skinLayerIndex The skin layer index for player npcs, or {@code -1} for other npcs.
+     * @throws ReflectiveOperationException When failed to call the method.
+     */
+    Object getVirtualMetadataPacket(int entityId, byte entityFlags, int skinLayerIndex) throws ReflectiveOperationException;
+
+    /**
+     * Returns the spawn packet for a virtual npc.
+     *
+     * @param npc The npc.
+     * @throws ReflectiveOperationException When failed to call the method.
+     */
+    @PacketValue(keyName = "virtualSpawnPacket")
+    default Object getVirtualSpawnPacket(NPC npc) throws ReflectiveOperationException {
+        final Location location = npc.getLocation();
+        return npc.getNpcPojo().getNpcType() == NPCType.PLAYER ?
+            VirtualEntity.playerSpawnPacket(npc.getEntityID(), npc.getGameProfile(),
+                location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch()) :
+            VirtualEntity.entitySpawnPacket(npc.getNpcPojo().getNpcType(), npc.getEntityID(), npc.getUUID(),
+                location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * Creates the tab list remove packet for a virtual npc.
+     *
+     * @throws ReflectiveOperationException When failed to call the method.
+     */
+    @PacketValue(keyName = "virtualRemoveTab")
+    default Object getVirtualTabRemovePacket(GameProfile gameProfile) throws ReflectiveOperationException {
+        return VirtualEntity.playerInfoPacket(CacheRegistry.REMOVE_PLAYER_FIELD, gameProfile);
+    }
+
+    /**
+     * Returns the spawn packet for a hologram line.
+     *
+     * @param entityId The hologram line entity id.
+     * @param uuid The hologram line entity uuid.
+     * @param x The hologram line x position.
+     * @param y The hologram line y position.
+     * @param z The hologram line z position.
      * @throws ReflectiveOperationException When failed to call the method.
      */
     @PacketValue(keyName = "hologramSpawnPacket", valueType = ValueType.ARGUMENTS)
-    Object getHologramSpawnPacket(Object armorStand) throws ReflectiveOperationException;
+    default Object getHologramSpawnPacket(int entityId, UUID uuid, double x, double y, double z) throws ReflectiveOperationException {
+        return VirtualEntity.armorStandSpawnPacket(entityId, uuid, x, y, z);
+    }
+
+    /**
+     * Returns the teleport packet for a hologram line.
+     *
+     * @param entityId The hologram line entity id.
+     * @param x The new x position.
+     * @param y The new y position.
+     * @param z The new z position.
+     * @throws ReflectiveOperationException When failed to call the method.
+     */
+    default Object getHologramTeleportPacket(int entityId, double x, double y, double z) throws ReflectiveOperationException {
+        return VirtualEntity.teleportPacket(entityId, x, y, z, 0F, 0F);
+    }
+
+    /**
+     * Returns the meta data packet for a hologram line.
+     *
+     * @param entityId The hologram line entity id.
+     * @param name The hologram line name, or {@code null} if the name should not be visible.
+     * @throws ReflectiveOperationException When failed to call the method.
+     */
+    Object getHologramMetadataPacket(int entityId, @Nullable String name) throws ReflectiveOperationException;
+
+    /**
+     * Determines if the version can render a hologram as a single text display entity.
+     *
+     * @return {@code true} If the version support text display entities.
+     */
+    default boolean supportsTextDisplay() {
+        return false;
+    }
+
+    /**
+     * Returns the spawn packet for a text display hologram.
+     *
+     * @param entityId The hologram entity id.
+     * @param uuid The hologram entity uuid.
+     * @param x The hologram x position.
+     * @param y The hologram y position.
+     * @param z The hologram z position.
+     * @throws ReflectiveOperationException When failed to call the method.
+     * @throws IllegalStateException If the version does not support text display entities.
+     */
+    @PacketValue(keyName = "textDisplaySpawnPacket", valueType = ValueType.ARGUMENTS)
+    default Object getTextDisplaySpawnPacket(int entityId, UUID uuid, double x, double y, double z) throws ReflectiveOperationException {
+        throw new IllegalStateException("Text display is not supported for " + version() + " version.");
+    }
+
+    /**
+     * Returns the meta data packet for a text display hologram.
+     *
+     * @param entityId The hologram entity id.
+     * @param text The hologram text, each line separated by a new line.
+     * @throws ReflectiveOperationException When failed to call the method.
+     * @throws IllegalStateException If the version does not support text display entities.
+     */
+    default Object getTextDisplayMetadataPacket(int entityId, String text) throws ReflectiveOperationException {
+        throw new IllegalStateException("Text display is not supported for " + version() + " version.");
+    }
 
     /**
      * Returns the destroy packet for the given entity id.
@@ -13,7 +13,8 @@ public final class PacketFactory {
             new PacketV8(),
             new PacketV9(),
             new PacketV16(),
-            new PacketV17());
+            new PacketV17(),
+            new PacketV19());
 
     /**
      * Returns the packet instance for the server bukkit version.
@@ -3,6 +3,7 @@ package io.github.znetworkw.znpcservers.npc.packet;
 import com.mojang.authlib.GameProfile;
 import io.github.znetworkw.znpcservers.cache.CacheRegistry;
 import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.event.ClickType;
 import io.github.znetworkw.znpcservers.utility.Utils;
 import org.bukkit.Bukkit;
 
@@ -24,7 +25,7 @@ public class PacketV17 extends PacketV16 {
     }
 
     @Override
-    public Object getClickType(Object interactPacket) {
-        return "INTERACT";
+    public ClickType getClickType(Object interactPacket) {
+        return ClickType.RIGHT;
     }
 }
@@ -0,0 +1,108 @@
+package io.github.znetworkw.znpcservers.npc.packet;
+
+import com.google.common.collect.ImmutableList;
+import io.github.znetworkw.znpcservers.UnexpectedCallException;
+import io.github.znetworkw.znpcservers.cache.CacheRegistry;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.UUID;
+
+public class PacketV19 extends PacketV17 {
+    /** The text display billboard value for always facing the player. */
+    private static final byte BILLBOARD_CENTER = 3;
+
+    @Override
+    public int version() {
+        return 19;
+    }
+
+    @Override
+    public boolean supportsTextDisplay() {
+        // text display entities were added on 1.19.4
+        return CacheRegistry.TEXT_DISPLAY_CONSTRUCTOR != null
+            && CacheRegistry.PACKET_PLAY_OUT_SPAWN_ENTITY_NEW_CONSTRUCTOR != null
+            && CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_VALUES_CONSTRUCTOR != null
+            && CacheRegistry.DATA_WATCHER_VALUE_CREATE_METHOD != null
+            && CacheRegistry.CRAFT_CHAT_MESSAGE_LINES_METHOD != null;
+    }
+
+    @Override
+    public Object getVirtualMetadataPacket(int entityId, byte entityFlags, int skinLayerIndex) throws ReflectiveOperationException {
+        if (CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_VALUES_CONSTRUCTOR == null || CacheRegistry.DATA_WATCHER_VALUE_CREATE_METHOD == null) {
+            return super.getVirtualMetadataPacket(entityId, entityFlags, skinLayerIndex);
+        }
+        // since 1.19.3 the meta data packet is created from the data values
+        final ImmutableList.Builder<Object> builder = ImmutableList.builder();
+        builder.add(CacheRegistry.DATA_WATCHER_VALUE_CREATE_METHOD.invoke(null,
+            CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(0, CacheRegistry.DATA_WATCHER_REGISTER_FIELD), entityFlags));
+        if (skinLayerIndex != -1) {
+            builder.add(CacheRegistry.DATA_WATCHER_VALUE_CREATE_METHOD.invoke(null,
+                CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(skinLayerIndex, CacheRegistry.DATA_WATCHER_REGISTER_FIELD), (byte) 127)); // second skin layer
+        }
+        return CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_VALUES_CONSTRUCTOR.newInstance(entityId, builder.build());
+    }
+
+    @Override
+    public Object getTextDisplaySpawnPacket(int entityId, UUID uuid, double x, double y, double z) throws ReflectiveOperationException {
+        return VirtualEntity.textDisplaySpawnPacket(entityId, uuid, x, y, z);
+    }
+
+    @Override
+    public Object getTextDisplayMetadataPacket(int entityId, String text) throws ReflectiveOperationException {
+        return CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_VALUES_CONSTRUCTOR.newInstance(entityId, ImmutableList.of(
+            CacheRegistry.DATA_WATCHER_VALUE_CREATE_METHOD.invoke(null, TextDisplayWatchers.TEXT,
+                // empty strings are converted to null
+                CacheRegistry.CRAFT_CHAT_MESSAGE_LINES_METHOD.invoke(null, text.isEmpty() ? " " : text, true)),
+            CacheRegistry.DATA_WATCHER_VALUE_CREATE_METHOD.invoke(null, TextDisplayWatchers.BILLBOARD, BILLBOARD_CENTER)));
+    }
+
+    /**
+     * Holds the text display data watcher objects, located when the class is first used
+     * so every thread sees both objects. Only used if {@link #supportsTextDisplay()}.
+     */
+    private static final class TextDisplayWatchers {
+        /** The text data watcher object. */
+        private static final Object TEXT;
+        /** The billboard data watcher object. */
+        private static final Object BILLBOARD;
+
+        static {
+            try {
+                TEXT = findDataWatcherObject(CacheRegistry.ENTITY_TEXT_DISPLAY_CLASS, CacheRegistry.I_CHAT_BASE_COMPONENT);
+                BILLBOARD = findDataWatcherObject(CacheRegistry.ENTITY_TEXT_DISPLAY_CLASS.getSuperclass(), Byte.class);
+            } catch (IllegalAccessException e) {
+                throw new UnexpectedCallException(e);
+            }
+        }
+    }
+
+    /**
+     * Locates the data watcher object of the given value type declared on the entity class.
+     * <p>
+     * The data watcher objects are located by their value type since the
+     * field names and the data watcher indexes changes between versions.
+     *
+     * @param entityClass The entity class.
+     * @param valueType The data watcher object value type.
+     * @return The data watcher object.
+     * @throws IllegalAccessException If the field cannot be accessed.
+     * @throws IllegalStateException If cannot find data watcher object.
+     */
+    private static Object findDataWatcherObject(Class<?> entityClass,
+                                                Class<?> valueType) throws IllegalAccessException {
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())
+                || field.getType() != CacheRegistry.DATA_WATCHER_OBJECT
+                || !(field.getGenericType() instanceof ParameterizedType)) {
+                continue;
+            }
+            if (((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0] == valueType) {
+                field.setAccessible(true);
+                return field.get(null);
+            }
+        }
+        throw new IllegalStateException("can't find " + valueType.getSimpleName() + " data watcher object for: " + entityClass.getName());
+    }
+}
@@ -5,6 +5,7 @@ import com.mojang.authlib.GameProfile;
 import io.github.znetworkw.znpcservers.npc.ItemSlot;
 import io.github.znetworkw.znpcservers.cache.CacheRegistry;
 import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.event.ClickType;
 import io.github.znetworkw.znpcservers.utility.Utils;
 import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
@@ -13,6 +14,8 @@ import java.lang.reflect.Constructor;
 import java.util.Map;
 
 public class PacketV8 implements Packet {
+    /** The click type for each interact action, by the action ordinal. */
+    private ClickType[] clickTypes;
 
     @Override
     public int version() {
@@ -45,8 +48,19 @@ public class PacketV8 implements Packet {
     }
 
     @Override
-    public Object getClickType(Object interactPacket) throws ReflectiveOperationException {
-        return Utils.getValue(interactPacket, "action");
+    public ClickType getClickType(Object interactPacket) throws ReflectiveOperationException {
+        final Enum<?> action = (Enum<?>) CacheRegistry.PACKET_IN_USE_ENTITY_ACTION_FIELD.get(interactPacket);
+        ClickType[] types = clickTypes;
+        if (types == null) {
+            // map each action once, the lookup is then a single array index
+            final Enum<?>[] actions = action.getDeclaringClass().getEnumConstants();
+            types = new ClickType[actions.length];
+            for (Enum<?> actionConstant : actions) {
+                types[actionConstant.ordinal()] = ClickType.forName(actionConstant.name());
+            }
+            clickTypes = types;
+        }
+        return types[action.ordinal()];
     }
 
     @Override
@@ -56,8 +70,24 @@ public class PacketV8 implements Packet {
     }
 
     @Override
-    public Object getHologramSpawnPacket(Object armorStand) throws ReflectiveOperationException {
-        return CacheRegistry.PACKET_PLAY_OUT_SPAWN_ENTITY_CONSTRUCTOR.newInstance(armorStand);
+    public Object getVirtualMetadataPacket(int entityId, byte entityFlags, int skinLayerIndex) throws ReflectiveOperationException {
+        final Object dataWatcher = CacheRegistry.DATA_WATCHER_CONSTRUCTOR.newInstance((Object) null);
+        CacheRegistry.REGISTER_DATA_WATCHER_METHOD_OLD.invoke(dataWatcher, 0, entityFlags);
+        if (skinLayerIndex != -1) {
+            CacheRegistry.REGISTER_DATA_WATCHER_METHOD_OLD.invoke(dataWatcher, skinLayerIndex, (byte) 127); // second skin layer
+        }
+        return CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_CONSTRUCTOR.newInstance(entityId, dataWatcher, true);
+    }
+
+    @Override
+    public Object getHologramMetadataPacket(int entityId, String name) throws ReflectiveOperationException {
+        final Object dataWatcher = CacheRegistry.DATA_WATCHER_CONSTRUCTOR.newInstance((Object) null);
+        CacheRegistry.REGISTER_DATA_WATCHER_METHOD_OLD.invoke(dataWatcher, 0, (byte) 0x20); // invisible
+        if (name != null) {
+            CacheRegistry.REGISTER_DATA_WATCHER_METHOD_OLD.invoke(dataWatcher, 2, name);
+        }
+        CacheRegistry.REGISTER_DATA_WATCHER_METHOD_OLD.invoke(dataWatcher, 3, (byte) (name != null ? 1 : 0)); // name visible
+        return CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_CONSTRUCTOR.newInstance(entityId, dataWatcher, true);
     }
 
     @Override
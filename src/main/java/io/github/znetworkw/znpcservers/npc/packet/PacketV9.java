@@ -8,6 +8,7 @@ import io.github.znetworkw.znpcservers.utility.Utils;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Map;
+import java.util.Optional;
 
 public class PacketV9 extends PacketV8 {
 
@@ -21,6 +22,38 @@ public class PacketV9 extends PacketV8 {
         return CacheRegistry.AS_NMS_COPY_METHOD.invoke(CacheRegistry.CRAFT_ITEM_STACK_CLASS, itemStack);
     }
 
+    @Override
+    public Object getVirtualMetadataPacket(int entityId, byte entityFlags, int skinLayerIndex) throws ReflectiveOperationException {
+        final Object dataWatcher = CacheRegistry.DATA_WATCHER_CONSTRUCTOR.newInstance((Object) null);
+        CacheRegistry.REGISTER_DATA_WATCHER_METHOD.invoke(dataWatcher,
+            CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(0, CacheRegistry.DATA_WATCHER_REGISTER_FIELD), entityFlags);
+        if (skinLayerIndex != -1) {
+            CacheRegistry.REGISTER_DATA_WATCHER_METHOD.invoke(dataWatcher,
+                CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(skinLayerIndex, CacheRegistry.DATA_WATCHER_REGISTER_FIELD), (byte) 127); // second skin layer
+        }
+        return CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_CONSTRUCTOR.newInstance(entityId, dataWatcher, true);
+    }
+
+    @Override
+    public Object getHologramMetadataPacket(int entityId, String name) throws ReflectiveOperationException {
+        final Object dataWatcher = CacheRegistry.DATA_WATCHER_CONSTRUCTOR.newInstance((Object) null);
+        CacheRegistry.REGISTER_DATA_WATCHER_METHOD.invoke(dataWatcher,
+            CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(0, CacheRegistry.DATA_WATCHER_REGISTER_FIELD), (byte) 0x20); // invisible
+        if (name != null) {
+            if (Utils.BUKKIT_VERSION > 12) {
+                CacheRegistry.REGISTER_DATA_WATCHER_METHOD.invoke(dataWatcher,
+                    CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(2, CacheRegistry.DATA_WATCHER_OPTIONAL_CHAT_SERIALIZER),
+                    Optional.ofNullable(CacheRegistry.CRAFT_CHAT_MESSAGE_METHOD.invoke(null, name)));
+            } else {
+                CacheRegistry.REGISTER_DATA_WATCHER_METHOD.invoke(dataWatcher,
+                    CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(2, CacheRegistry.DATA_WATCHER_STRING_SERIALIZER), name);
+            }
+        }
+        CacheRegistry.REGISTER_DATA_WATCHER_METHOD.invoke(dataWatcher,
+            CacheRegistry.DATA_WATCHER_OBJECT_CONSTRUCTOR.newInstance(3, CacheRegistry.DATA_WATCHER_BOOLEAN_SERIALIZER), name != null); // name visible
+        return CacheRegistry.PACKET_PLAY_OUT_ENTITY_META_DATA_CONSTRUCTOR.newInstance(entityId, dataWatcher, true);
+    }
+
     @Override
     public ImmutableList<Object> getEquipPackets(NPC npc) throws ReflectiveOperationException {
         ImmutableList.Builder<Object> builder = ImmutableList.builder();
@@ -0,0 +1,336 @@
+package io.github.znetworkw.znpcservers.npc.packet;
+
+import com.mojang.authlib.GameProfile;
+import io.github.znetworkw.znpcservers.cache.CacheRegistry;
+import io.github.znetworkw.znpcservers.npc.NPCType;
+import io.github.znetworkw.znpcservers.utility.Utils;
+import org.bukkit.Bukkit;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper for entities that only exists on the client side.
+ * <p>
+ * A virtual entity does not have a nms instance, its id is allocated by the plugin and its
+ * packets are created from a single shared template entity, the entity id and uuid of the
+ * created packet are then replaced with the virtual entity values.
+ */
+public final class VirtualEntity {
+    /** The last allocated entity id, counts down from the top of the id range so it will not collide with the server entities. */
+    private static final AtomicInteger LAST_ENTITY_ID = new AtomicInteger(Integer.MAX_VALUE);
+    /** A map containing the entity id field for each packet class. */
+    private static final ConcurrentMap<Class<?>, Field> ENTITY_ID_FIELDS = new ConcurrentHashMap<>();
+    /** A map containing the entity uuid field for each packet class. */
+    private static final ConcurrentMap<Class<?>, Field> ENTITY_UUID_FIELDS = new ConcurrentHashMap<>();
+    /** A map containing the player list field for each player info packet class. */
+    private static final ConcurrentMap<Class<?>, Field> PLAYER_INFO_FIELDS = new ConcurrentHashMap<>();
+    /** A map containing the game profile field for each player info data class. */
+    private static final ConcurrentMap<Class<?>, Field> GAME_PROFILE_FIELDS = new ConcurrentHashMap<>();
+    /** The profile of the template player, the real profile is set on each packet. */
+    private static final GameProfile TEMPLATE_PROFILE = new GameProfile(UUID.randomUUID(), "template");
+    /** Lock for the template entity, the template location must not change while creating a packet. */
+    private static final Object TEMPLATE_LOCK = new Object();
+
+    /** The template armor stand, created on the first call. */
+    private static Object armorStandTemplate;
+    /** The template text display, created on the first call. */
+    private static Object textDisplayTemplate;
+    /** The template player, created on the first call. */
+    private static Object playerTemplate;
+    /** The template entities for each non-player npc type, created on the first call. */
+    private static final Map<NPCType, Object> ENTITY_TEMPLATES = new EnumMap<>(NPCType.class);
+
+    /**
+     * Allocates a new entity id for a virtual entity.
+     *
+     * @return A new entity id.
+     */
+    public static int nextEntityId() {
+        return LAST_ENTITY_ID.getAndDecrement();
+    }
+
+    /**
+     * Creates the spawn packet for an invisible armor stand.
+     *
+     * @param entityId The entity id.
+     * @param uuid The entity uuid.
+     * @param x The x position.
+     * @param y The y position.
+     * @param z The z position.
+     * @return The spawn packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    public static Object armorStandSpawnPacket(int entityId,
+                                               UUID uuid,
+                                               double x,
+                                               double y,
+                                               double z) throws ReflectiveOperationException {
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            final Object armorStand = getArmorStandTemplate();
+            CacheRegistry.SET_LOCATION_METHOD.invoke(armorStand, x, y, z, 0F, 0F);
+            packet = CacheRegistry.PACKET_PLAY_OUT_SPAWN_ENTITY_CONSTRUCTOR.newInstance(armorStand);
+        }
+        return withEntity(packet, entityId, uuid);
+    }
+
+    /**
+     * Creates the spawn packet for a text display.
+     *
+     * @param entityId The entity id.
+     * @param uuid The entity uuid.
+     * @param x The x position.
+     * @param y The y position.
+     * @param z The z position.
+     * @return The spawn packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    public static Object textDisplaySpawnPacket(int entityId,
+                                                UUID uuid,
+                                                double x,
+                                                double y,
+                                                double z) throws ReflectiveOperationException {
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            if (textDisplayTemplate == null) {
+                textDisplayTemplate = CacheRegistry.TEXT_DISPLAY_CONSTRUCTOR.newInstance(
+                    ((Optional<?>) CacheRegistry.ENTITY_TYPES_A_METHOD.invoke(null, "text_display")).get(),
+                    CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(Bukkit.getWorlds().get(0)));
+            }
+            CacheRegistry.SET_LOCATION_METHOD.invoke(textDisplayTemplate, x, y, z, 0F, 0F);
+            packet = CacheRegistry.PACKET_PLAY_OUT_SPAWN_ENTITY_NEW_CONSTRUCTOR.newInstance(textDisplayTemplate);
+        }
+        return withEntity(packet, entityId, uuid);
+    }
+
+    /**
+     * Replaces the entity id and uuid of the given spawn packet.
+     *
+     * @param packet The spawn packet.
+     * @param entityId The new entity id.
+     * @param uuid The new entity uuid.
+     * @return The given packet.
+     * @throws IllegalAccessException If the packet fields cannot be accessed.
+     */
+    private static Object withEntity(Object packet,
+                                     int entityId,
+                                     UUID uuid) throws IllegalAccessException {
+        findField(ENTITY_ID_FIELDS, packet.getClass(), int.class).setInt(packet, entityId);
+        if (Utils.versionNewer(9)) { // uuid was added on 1.9
+            findField(ENTITY_UUID_FIELDS, packet.getClass(), UUID.class).set(packet, uuid);
+        }
+        return packet;
+    }
+
+    /**
+     * Creates the spawn packet for a player npc.
+     *
+     * @param entityId The entity id.
+     * @param gameProfile The npc profile, its id will be used as the entity uuid.
+     * @param x The x position.
+     * @param y The y position.
+     * @param z The z position.
+     * @param yaw The yaw rotation.
+     * @param pitch The pitch rotation.
+     * @return The spawn packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    public static Object playerSpawnPacket(int entityId,
+                                           GameProfile gameProfile,
+                                           double x,
+                                           double y,
+                                           double z,
+                                           float yaw,
+                                           float pitch) throws ReflectiveOperationException {
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            final Object player = getPlayerTemplate();
+            CacheRegistry.SET_LOCATION_METHOD.invoke(player, x, y, z, yaw, pitch);
+            packet = CacheRegistry.PACKET_PLAY_OUT_NAMED_ENTITY_CONSTRUCTOR.newInstance(player);
+        }
+        findField(ENTITY_ID_FIELDS, packet.getClass(), int.class).setInt(packet, entityId);
+        // the player spawn packet always had the profile id
+        findField(ENTITY_UUID_FIELDS, packet.getClass(), UUID.class).set(packet, gameProfile.getId());
+        return packet;
+    }
+
+    /**
+     * Creates the spawn packet for a non-player npc.
+     *
+     * @param npcType The npc entity type.
+     * @param entityId The entity id.
+     * @param uuid The entity uuid.
+     * @param x The x position.
+     * @param y The y position.
+     * @param z The z position.
+     * @param yaw The yaw rotation.
+     * @param pitch The pitch rotation.
+     * @return The spawn packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     * @throws IllegalArgumentException If the given type is {@link NPCType#PLAYER}.
+     */
+    public static Object entitySpawnPacket(NPCType npcType,
+                                           int entityId,
+                                           UUID uuid,
+                                           double x,
+                                           double y,
+                                           double z,
+                                           float yaw,
+                                           float pitch) throws ReflectiveOperationException {
+        if (npcType == NPCType.PLAYER) {
+            throw new IllegalArgumentException("player npcs must use the player spawn packet.");
+        }
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            Object entity = ENTITY_TEMPLATES.get(npcType);
+            if (entity == null) {
+                final Object nmsWorld = CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(Bukkit.getWorlds().get(0));
+                entity = Utils.versionNewer(14) ?
+                    npcType.getConstructor().newInstance(npcType.getNmsEntityType(), nmsWorld) :
+                    npcType.getConstructor().newInstance(nmsWorld);
+                ENTITY_TEMPLATES.put(npcType, entity);
+            }
+            CacheRegistry.SET_LOCATION_METHOD.invoke(entity, x, y, z, yaw, pitch);
+            packet = CacheRegistry.PACKET_PLAY_OUT_SPAWN_ENTITY_CONSTRUCTOR.newInstance(entity);
+        }
+        return withEntity(packet, entityId, uuid);
+    }
+
+    /**
+     * Creates the player info packet for a player npc.
+     *
+     * @param action The player info action, {@link CacheRegistry#ADD_PLAYER_FIELD} or {@link CacheRegistry#REMOVE_PLAYER_FIELD}.
+     * @param gameProfile The npc profile.
+     * @return The player info packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    public static Object playerInfoPacket(Object action,
+                                          GameProfile gameProfile) throws ReflectiveOperationException {
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            packet = CacheRegistry.PACKET_PLAY_OUT_PLAYER_INFO_CONSTRUCTOR.newInstance(action,
+                Collections.singletonList(getPlayerTemplate()));
+        }
+        // the packet keeps the template profile, replace it for each entry
+        for (Object playerInfoData : (List<?>) findField(PLAYER_INFO_FIELDS, packet.getClass(), List.class).get(packet)) {
+            findField(GAME_PROFILE_FIELDS, playerInfoData.getClass(), GameProfile.class).set(playerInfoData, gameProfile);
+        }
+        return packet;
+    }
+
+    /**
+     * Creates the head rotation packet for an entity.
+     *
+     * @param entityId The entity id.
+     * @param yaw The head yaw, as a protocol angle.
+     * @return The head rotation packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    public static Object headRotationPacket(int entityId,
+                                            byte yaw) throws ReflectiveOperationException {
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            packet = CacheRegistry.PACKET_PLAY_OUT_ENTITY_HEAD_ROTATION_CONSTRUCTOR.newInstance(getArmorStandTemplate(), yaw);
+        }
+        findField(ENTITY_ID_FIELDS, packet.getClass(), int.class).setInt(packet, entityId);
+        return packet;
+    }
+
+    /**
+     * Creates the teleport packet for an entity.
+     *
+     * @param entityId The entity id.
+     * @param x The new x position.
+     * @param y The new y position.
+     * @param z The new z position.
+     * @param yaw The new yaw rotation.
+     * @param pitch The new pitch rotation.
+     * @return The teleport packet.
+     * @throws ReflectiveOperationException When failed to create the packet.
+     */
+    public static Object teleportPacket(int entityId,
+                                        double x,
+                                        double y,
+                                        double z,
+                                        float yaw,
+                                        float pitch) throws ReflectiveOperationException {
+        final Object packet;
+        synchronized (TEMPLATE_LOCK) {
+            final Object armorStand = getArmorStandTemplate();
+            CacheRegistry.SET_LOCATION_METHOD.invoke(armorStand, x, y, z, yaw, pitch);
+            packet = CacheRegistry.PACKET_PLAY_OUT_ENTITY_TELEPORT_CONSTRUCTOR.newInstance(armorStand);
+        }
+        findField(ENTITY_ID_FIELDS, packet.getClass(), int.class).setInt(packet, entityId);
+        return packet;
+    }
+
+    /**
+     * Returns the template armor stand, creates it if not created yet.
+     * <p>
+     * <b>NOTE:</b> Must be called while holding the {@link #TEMPLATE_LOCK}.
+     *
+     * @return The template armor stand.
+     * @throws ReflectiveOperationException When failed to create the armor stand.
+     */
+    private static Object getArmorStandTemplate() throws ReflectiveOperationException {
+        if (armorStandTemplate == null) {
+            final Object armorStand = CacheRegistry.ENTITY_CONSTRUCTOR.newInstance(
+                CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(Bukkit.getWorlds().get(0)), 0D, 0D, 0D);
+            // the spawn packet contains the entity data on older versions
+            CacheRegistry.SET_INVISIBLE_METHOD.invoke(armorStand, true);
+            armorStandTemplate = armorStand;
+        }
+        return armorStandTemplate;
+    }
+
+    /**
+     * Returns the template player, creates it if not created yet.
+     * <p>
+     * <b>NOTE:</b> Must be called while holding the {@link #TEMPLATE_LOCK}.
+     *
+     * @return The template player.
+     * @throws ReflectiveOperationException When failed to create the player.
+     */
+    private static Object getPlayerTemplate() throws ReflectiveOperationException {
+        if (playerTemplate == null) {
+            playerTemplate = PacketFactory.PACKET_FOR_CURRENT_VERSION.getPlayerPacket(
+                CacheRegistry.GET_HANDLE_WORLD_METHOD.invoke(Bukkit.getWorlds().get(0)), TEMPLATE_PROFILE);
+        }
+        return playerTemplate;
+    }
+
+    /**
+     * Locates the first non-static field of the given type on the packet class.
+     *
+     * @param fields The cached fields.
+     * @param packetClass The packet class.
+     * @param type The field type.
+     * @return The found field.
+     * @throws IllegalStateException If the packet class does not have a field of the given type.
+     */
+    private static Field findField(ConcurrentMap<Class<?>, Field> fields,
+                                   Class<?> packetClass,
+                                   Class<?> type) {
+        return fields.computeIfAbsent(packetClass, clazz -> {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && field.getType() == type) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+            throw new IllegalStateException("can't find " + type.getSimpleName() + " field for: " + clazz.getName());
+        });
+    }
+
+    private VirtualEntity() {}
+}
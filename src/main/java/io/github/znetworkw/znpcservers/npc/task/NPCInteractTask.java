@@ -0,0 +1,111 @@
+package io.github.znetworkw.znpcservers.npc.task;
+
+import io.github.znetworkw.znpcservers.ServersNPC;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.event.ClickType;
+import io.github.znetworkw.znpcservers.user.ZUser;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runnable task for handling the {@link NPC} interactions.
+ * <p>
+ * The interactions are queued from the user channels and handled on the main thread
+ * once per tick, up to {@link ConfigurationConstants#INTERACTIONS_PER_TICK}, the remaining
+ * interactions are handled on the next tick.
+ */
+public class NPCInteractTask extends BukkitRunnable {
+    /** The logger instance. */
+    private static final Logger LOGGER = Logger.getLogger(NPCInteractTask.class.getName());
+    /** The maximum amount of queued interactions. */
+    private static final int MAX_QUEUE_SIZE = 4096;
+    /** The queued interactions. */
+    private static final Queue<Interaction> INTERACTION_QUEUE = new ConcurrentLinkedQueue<>();
+    /** The amount of queued interactions. */
+    private static final AtomicInteger QUEUE_SIZE = new AtomicInteger();
+
+    /**
+     * Creates a new task. This task will handle the queued interactions.
+     *
+     * @param serversNPC The plugin instance.
+     */
+    public NPCInteractTask(ServersNPC serversNPC) {
+        this.runTaskTimer(serversNPC, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < ConfigurationConstants.INTERACTIONS_PER_TICK; i++) {
+            final Interaction interaction = INTERACTION_QUEUE.poll();
+            if (interaction == null) {
+                return;
+            }
+            QUEUE_SIZE.decrementAndGet();
+            try {
+                interaction.user.interact(interaction.npc, interaction.clickType);
+            } catch (RuntimeException exception) {
+                // the other interactions are still handled
+                LOGGER.log(Level.WARNING, "can't handle interaction with npc " + interaction.npc.getNpcPojo().getId(), exception);
+            }
+        }
+    }
+
+    /**
+     * Queues an interaction, can be called from any thread.
+     *
+     * @param user The user that interacted with the npc.
+     * @param npc The npc.
+     * @param clickType The click type.
+     * @return {@code true} If the interaction was queued, {@code false} if the queue is full.
+     */
+    public static boolean submit(ZUser user,
+                                 NPC npc,
+                                 ClickType clickType) {
+        if (QUEUE_SIZE.incrementAndGet() > MAX_QUEUE_SIZE) {
+            QUEUE_SIZE.decrementAndGet();
+            return false;
+        }
+        INTERACTION_QUEUE.offer(new Interaction(user, npc, clickType));
+        return true;
+    }
+
+    /**
+     * Returns the amount of queued interactions.
+     */
+    public static int getQueueSize() {
+        return QUEUE_SIZE.get();
+    }
+
+    /**
+     * A queued npc interaction.
+     */
+    private static class Interaction {
+        /** The user that interacted with the npc. */
+        private final ZUser user;
+        /** The npc. */
+        private final NPC npc;
+        /** The click type. */
+        private final ClickType clickType;
+
+        /**
+         * Creates a new interaction.
+         *
+         * @param user The user that interacted with the npc.
+         * @param npc The npc.
+         * @param clickType The click type.
+         */
+        private Interaction(ZUser user,
+                            NPC npc,
+                            ClickType clickType) {
+            this.user = user;
+            this.npc = npc;
+            this.clickType = clickType;
+        }
+    }
+}
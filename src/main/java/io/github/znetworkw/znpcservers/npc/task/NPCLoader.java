@@ -0,0 +1,103 @@
+package io.github.znetworkw.znpcservers.npc.task;
+
+import io.github.znetworkw.znpcservers.ServersNPC;
+import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.NPCModel;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the saved {@link NPC}s grouped by world.
+ * <p>
+ * The npcs of each world are loaded in one batch when the world is loaded,
+ * or right away if the world is already loaded. The load time of each batch is
+ * logged, split in the prepare and register steps. The same steps are timed for
+ * a given amount of unsaved npcs with {@code /znpcs loadbench <count>}.
+ */
+public class NPCLoader implements Listener {
+    /** The logger for the loader. */
+    private static final Logger LOGGER = Logger.getLogger(NPCLoader.class.getName());
+
+    /** The npcs waiting for their world to load, by world name. */
+    private final Map<String, List<NPC>> pendingNpcs = new HashMap<>();
+
+    /**
+     * Creates a new loader for the given npc models.
+     *
+     * @param serversNPC The plugin instance.
+     * @param npcModels The npc models to load.
+     */
+    public NPCLoader(ServersNPC serversNPC,
+                     List<NPCModel> npcModels) {
+        for (NPCModel npcModel : npcModels) {
+            pendingNpcs.computeIfAbsent(npcModel.getLocation().getWorldName(), worldName -> new ArrayList<>())
+                .add(new NPC(npcModel));
+        }
+        for (World world : Bukkit.getWorlds()) {
+            loadWorld(world.getName());
+        }
+        if (!pendingNpcs.isEmpty()) {
+            serversNPC.getServer().getPluginManager().registerEvents(this, serversNPC);
+        }
+    }
+
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        loadWorld(event.getWorld().getName());
+        if (pendingNpcs.isEmpty()) {
+            // all npcs are loaded
+            HandlerList.unregisterAll(this);
+        }
+    }
+
+    /**
+     * Loads the pending npcs of the given world.
+     *
+     * @param worldName The world name.
+     */
+    private void loadWorld(String worldName) {
+        final List<NPC> npcs = pendingNpcs.remove(worldName);
+        if (npcs == null) {
+            return;
+        }
+        final long startNanos = System.nanoTime();
+        // the profiles, skins and paths are cheap, prepared on the main thread
+        final List<NPC> preparedNpcs = new ArrayList<>(npcs.size());
+        for (NPC npc : npcs) {
+            try {
+                npc.prepare();
+                preparedNpcs.add(npc);
+            } catch (RuntimeException exception) {
+                LOGGER.log(Level.WARNING, "can't load npc " + npc.getNpcPojo().getId() + " on world " + worldName, exception);
+            }
+        }
+        final long prepareNanos = System.nanoTime();
+        int loaded = 0;
+        for (NPC npc : preparedNpcs) {
+            try {
+                npc.register();
+                loaded++;
+            } catch (RuntimeException exception) {
+                LOGGER.log(Level.WARNING, "can't load npc " + npc.getNpcPojo().getId() + " on world " + worldName, exception);
+            }
+        }
+        final long endNanos = System.nanoTime();
+        LOGGER.info(String.format("Loaded %d/%d npcs for world %s in %dms (prepare %dms, register %dms)",
+            loaded, npcs.size(), worldName,
+            TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos),
+            TimeUnit.NANOSECONDS.toMillis(prepareNanos - startNanos),
+            TimeUnit.NANOSECONDS.toMillis(endNanos - prepareNanos)));
+    }
+}
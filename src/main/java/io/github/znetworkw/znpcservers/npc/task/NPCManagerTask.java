@@ -5,15 +5,21 @@ import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
 import io.github.znetworkw.znpcservers.npc.NPC;
 import io.github.znetworkw.znpcservers.npc.FunctionFactory;
 import io.github.znetworkw.znpcservers.npc.conversation.ConversationModel;
+import io.github.znetworkw.znpcservers.npc.hologram.replacer.RGBLine;
 import io.github.znetworkw.znpcservers.user.ZUser;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Runnable task for handling the {@link NPC}s.
  */
 public class NPCManagerTask extends BukkitRunnable {
+    /** The time a npc can be without viewers before it is released, in nanoseconds. */
+    private static final long IDLE_RELEASE_NANOS = TimeUnit.SECONDS.toNanos(ConfigurationConstants.IDLE_RELEASE_SECONDS);
+
     /**
      * Creates a new task. This task will handle all the {@link NPC}s.
      *
@@ -25,6 +31,9 @@ public class NPCManagerTask extends BukkitRunnable {
 
     @Override
     public void run() {
+        if (ConfigurationConstants.RGB_ANIMATION) {
+            RGBLine.nextFrame();
+        }
         for (NPC npc : NPC.all()) {
             final boolean hasPath = npc.getNpcPath() != null;
             if (hasPath) {
@@ -51,6 +60,9 @@ public class NPCManagerTask extends BukkitRunnable {
                     }
                 }
             }
+            if (IDLE_RELEASE_NANOS > 0) {
+                npc.releaseIfIdle(IDLE_RELEASE_NANOS);
+            }
         }
     }
 }
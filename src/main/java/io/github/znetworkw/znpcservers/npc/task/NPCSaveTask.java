@@ -3,12 +3,22 @@ package io.github.znetworkw.znpcservers.npc.task;
 import io.github.znetworkw.znpcservers.ServersNPC;
 import io.github.znetworkw.znpcservers.configuration.Configuration;
 import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.NPCJournal;
+import io.github.znetworkw.znpcservers.skin.SkinCache;
+import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
 
 /**
  * Runnable task for saving the created {@link NPC}s.
+ * <p>
+ * Only the changed configurations are saved, the files are written on a background thread.
+ * Saving the npcs also removes the saved changes from the {@link NPCJournal}.
+ * The {@link SkinCache} and the skin refresh cursor are saved off the main thread.
  */
 public class NPCSaveTask extends BukkitRunnable {
+    /** The plugin instance. */
+    private final ServersNPC serversNPC;
+
     /**
      * Creates a new task. This task will handle the saving of
      * all created {@link NPC}s.
@@ -18,11 +28,17 @@ public class NPCSaveTask extends BukkitRunnable {
      */
     public NPCSaveTask(ServersNPC serversNPC,
                        int seconds) {
-        this.runTaskTimer(serversNPC, 200L, seconds);
+        this.serversNPC = serversNPC;
+        this.runTaskTimer(serversNPC, 200L, seconds * 20L);
     }
 
     @Override
     public void run() {
-        Configuration.SAVE_CONFIGURATIONS.forEach(Configuration::save);
+        Configuration.CONVERSATIONS.saveAsync();
+        NPCJournal.compact();
+        Bukkit.getScheduler().runTaskAsynchronously(serversNPC, () -> {
+            SkinCache.save();
+            NPCSkinRefreshTask.saveCursor();
+        });
     }
 }
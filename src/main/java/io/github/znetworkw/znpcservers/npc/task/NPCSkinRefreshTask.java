@@ -0,0 +1,190 @@
+package io.github.znetworkw.znpcservers.npc.task;
+
+import io.github.znetworkw.znpcservers.ServersNPC;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.NPCJournal;
+import io.github.znetworkw.znpcservers.npc.NPCModel;
+import io.github.znetworkw.znpcservers.npc.NPCSkin;
+import io.github.znetworkw.znpcservers.npc.NPCType;
+import io.github.znetworkw.znpcservers.skin.SkinFetcherBuilder;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runnable task for refreshing the skins of the {@link NPC}s that follow a player name.
+ * <p>
+ * The NPCs are checked in order of their id, at most one skin is fetched each run
+ * so the requests stay within {@link ConfigurationConstants#SKIN_REFRESH_PER_MINUTE}.
+ * The last checked id is saved periodically, so the refresh continues where it left off
+ * after a restart.
+ */
+public class NPCSkinRefreshTask extends BukkitRunnable {
+    /** The logger instance. */
+    private static final Logger LOGGER = Logger.getLogger(NPCSkinRefreshTask.class.getName());
+    /** The file in which the last checked npc id is saved. */
+    private static final Path CURSOR_PATH = ServersNPC.PLUGIN_FOLDER.toPath().resolve("skin-refresh.cursor");
+    /** The ticks in a minute. */
+    private static final long TICKS_PER_MINUTE = 20 * 60;
+
+    /** How old a skin must be to be fetched again, in milliseconds. */
+    private static final long REFRESH_MILLIS = TimeUnit.SECONDS.toMillis(ConfigurationConstants.SKIN_REFRESH_SECONDS);
+
+    /** {@code true} If the cursor changed since it was saved. */
+    private static final AtomicBoolean CURSOR_DIRTY = new AtomicBoolean();
+
+    /** The plugin instance. */
+    private final ServersNPC serversNPC;
+
+    /** The id of the last checked npc. */
+    private static volatile int cursor = Integer.MIN_VALUE;
+    /** The NPCs with a refreshed skin since the plugin was enabled. */
+    private static int refreshedSkins = 0;
+    /** The failed skin requests since the plugin was enabled. */
+    private static int failedSkins = 0;
+
+    /**
+     * Creates a new task. This task will refresh the stale npc skins.
+     *
+     * @param serversNPC The plugin instance.
+     */
+    public NPCSkinRefreshTask(ServersNPC serversNPC) {
+        this.serversNPC = serversNPC;
+        loadCursor();
+        final long period = Math.max(1L, TICKS_PER_MINUTE / Math.max(1, ConfigurationConstants.SKIN_REFRESH_PER_MINUTE));
+        this.runTaskTimer(serversNPC, period, period);
+    }
+
+    @Override
+    public void run() {
+        final long now = System.currentTimeMillis();
+        final int startCursor = cursor;
+        final List<NPC> npcs = new ArrayList<>(NPC.all());
+        npcs.sort(Comparator.comparingInt(npc -> npc.getNpcPojo().getId()));
+        for (NPC npc : npcs) {
+            final int id = npc.getNpcPojo().getId();
+            if (id <= cursor) {
+                continue;
+            }
+            cursor = id;
+            if (isStale(npc.getNpcPojo(), now)) {
+                CURSOR_DIRTY.set(true);
+                refreshSkin(npc);
+                return;
+            }
+        }
+        // pass finished, start again from the first npc
+        cursor = Integer.MIN_VALUE;
+        if (startCursor != Integer.MIN_VALUE) {
+            CURSOR_DIRTY.set(true);
+        }
+    }
+
+    /**
+     * Fetches the npc skin again and applies it on the main thread if it changed.
+     * The cached skin is ignored, it could be as old as the npc skin.
+     *
+     * @param npc The npc.
+     */
+    private void refreshSkin(NPC npc) {
+        final String skinName = npc.getNpcPojo().getSkinName();
+        NPCSkin.fetchName(skinName, (values, throwable) -> Bukkit.getScheduler().runTask(serversNPC, () -> {
+            if (throwable != null) {
+                failedSkins++;
+                return;
+            }
+            final NPCModel npcModel = npc.getNpcPojo();
+            if (NPC.find(npcModel.getId()) != npc) {
+                return; // the npc was deleted while fetching
+            }
+            if (!skinName.equals(npcModel.getSkinName())) {
+                return; // the skin was changed while fetching
+            }
+            if (values[0].equals(npcModel.getSkin()) && values[1].equals(npcModel.getSignature())) {
+                // same skin, the npc does not need to be spawned again
+                npcModel.setSkinTime(System.currentTimeMillis());
+                NPCJournal.record(npcModel);
+                return;
+            }
+            npc.changeSkin(NPCSkin.forValues(values), skinName);
+            refreshedSkins++;
+        }));
+    }
+
+    /**
+     * Returns {@code true} if the npc skin follows a player name and must be fetched again.
+     *
+     * @param npcModel The npc model.
+     * @param now The current time, in milliseconds.
+     */
+    private static boolean isStale(NPCModel npcModel, long now) {
+        final String skinName = npcModel.getSkinName();
+        return npcModel.getNpcType() == NPCType.PLAYER
+            && skinName != null
+            && SkinFetcherBuilder.withName(skinName).isProfileType() // url skins do not change
+            && now - npcModel.getSkinTime() >= REFRESH_MILLIS;
+    }
+
+    /**
+     * Loads the last checked npc id.
+     */
+    private static void loadCursor() {
+        if (!Files.exists(CURSOR_PATH)) {
+            return;
+        }
+        try {
+            cursor = Integer.parseInt(new String(Files.readAllBytes(CURSOR_PATH), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "can't load the skin refresh cursor", e);
+        }
+    }
+
+    /**
+     * Saves the last checked npc id if it changed, called with the periodic save
+     * off the main thread and when the plugin is disabled.
+     */
+    public static synchronized void saveCursor() {
+        if (!CURSOR_DIRTY.getAndSet(false)) {
+            return;
+        }
+        try {
+            Files.write(CURSOR_PATH, Integer.toString(cursor).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            CURSOR_DIRTY.set(true);
+            LOGGER.log(Level.WARNING, "can't save the skin refresh cursor", e);
+        }
+    }
+
+    /**
+     * Returns the id of the last checked npc, or {@link Integer#MIN_VALUE} at the start of a pass.
+     */
+    public static int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns the NPCs with a refreshed skin since the plugin was enabled.
+     */
+    public static int getRefreshedSkins() {
+        return refreshedSkins;
+    }
+
+    /**
+     * Returns the failed skin requests since the plugin was enabled.
+     */
+    public static int getFailedSkins() {
+        return failedSkins;
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.znetworkw.znpcservers.skin;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import io.github.znetworkw.znpcservers.ServersNPC;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the fetched skin textures, in memory and on the plugin folder.
+ * <p>
+ * The skins are kept for {@link ConfigurationConstants#SKIN_CACHE_SECONDS}, so
+ * applying the same skin again does not make a new request to the skin api server.
+ */
+public final class SkinCache {
+    /** The logger instance. */
+    private static final Logger LOGGER = Logger.getLogger(SkinCache.class.getName());
+    /** The file in which the skins are saved. */
+    private static final Path CACHE_PATH = ServersNPC.PLUGIN_FOLDER.toPath().resolve("skins.json");
+    /** The type of the saved skins. */
+    private static final Type CACHE_TYPE = new TypeToken<Map<String, CachedSkin>>() {}.getType();
+    /** How long a skin is kept, in milliseconds. */
+    private static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(ConfigurationConstants.SKIN_CACHE_SECONDS);
+
+    /** The cached skins by their key. */
+    private static final Map<String, CachedSkin> SKINS = new ConcurrentHashMap<>();
+    /** {@code true} If a skin was cached since the last save. */
+    private static final AtomicBoolean DIRTY = new AtomicBoolean();
+
+    static {
+        load();
+    }
+
+    private SkinCache() {}
+
+    /**
+     * Returns the cache key for the given builder.
+     *
+     * @param builder The skin builder.
+     * @return The cache key.
+     */
+    public static String keyFor(SkinFetcherBuilder builder) {
+        // player names are case-insensitive
+        return builder.getAPIServer().name() + ":" + (builder.isProfileType() ? builder.getData().toLowerCase(Locale.ROOT) : builder.getData());
+    }
+
+    /**
+     * Returns the cached skin values for the given key.
+     *
+     * @param key The cache key.
+     * @return The skin values, or {@code null} if the skin is not cached or expired.
+     */
+    public static String[] get(String key) {
+        final CachedSkin cachedSkin = SKINS.get(key);
+        if (cachedSkin == null) {
+            return null;
+        }
+        if (cachedSkin.isExpired(System.currentTimeMillis())) {
+            SKINS.remove(key, cachedSkin);
+            return null;
+        }
+        return new String[]{cachedSkin.value, cachedSkin.signature};
+    }
+
+    /**
+     * Caches the skin values for the given key, the cache file is written on the next {@link #save()}.
+     *
+     * @param key The cache key.
+     * @param values The skin values.
+     */
+    public static void put(String key, String[] values) {
+        if (TTL_MILLIS <= 0) {
+            return;
+        }
+        SKINS.put(key, new CachedSkin(values[0], values[1], System.currentTimeMillis()));
+        DIRTY.set(true);
+    }
+
+    /**
+     * Loads the saved skins, the expired skins are ignored.
+     */
+    private static void load() {
+        if (TTL_MILLIS <= 0 || !Files.exists(CACHE_PATH)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(CACHE_PATH, StandardCharsets.UTF_8)) {
+            final Map<String, CachedSkin> savedSkins = ServersNPC.GSON.fromJson(reader, CACHE_TYPE);
+            if (savedSkins == null) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            savedSkins.forEach((key, cachedSkin) -> {
+                if (!cachedSkin.isExpired(now)) {
+                    SKINS.put(key, cachedSkin);
+                }
+            });
+        } catch (IOException | JsonParseException e) {
+            LOGGER.log(Level.WARNING, "can't load the skin cache", e);
+        }
+    }
+
+    /**
+     * Saves the skins that are not expired, if a skin was cached since the last save.
+     * Called periodically off the main thread and when the plugin is disabled.
+     */
+    public static synchronized void save() {
+        if (!DIRTY.getAndSet(false)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        SKINS.values().removeIf(cachedSkin -> cachedSkin.isExpired(now));
+        final Path tempPath = CACHE_PATH.resolveSibling(CACHE_PATH.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                ServersNPC.GSON.toJson(SKINS, CACHE_TYPE, writer);
+            }
+            try {
+                Files.move(tempPath, CACHE_PATH, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, CACHE_PATH, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            DIRTY.set(true); // try again on the next save
+            LOGGER.log(Level.WARNING, "can't save the skin cache", e);
+        }
+    }
+
+    /**
+     * A cached skin.
+     */
+    private static class CachedSkin {
+        /** The skin texture value. */
+        private final String value;
+        /** The skin texture signature. */
+        private final String signature;
+        /** The time the skin was fetched, in milliseconds. */
+        private final long fetchTime;
+
+        /**
+         * Creates a new cached skin.
+         *
+         * @param value The skin texture value.
+         * @param signature The skin texture signature.
+         * @param fetchTime The time the skin was fetched, in milliseconds.
+         */
+        private CachedSkin(String value,
+                           String signature,
+                           long fetchTime) {
+            this.value = value;
+            this.signature = signature;
+            this.fetchTime = fetchTime;
+        }
+
+        /**
+         * Returns {@code true} if the skin must be fetched again.
+         *
+         * @param now The current time, in milliseconds.
+         */
+        private boolean isExpired(long now) {
+            return now - fetchTime >= TTL_MILLIS;
+        }
+    }
+}
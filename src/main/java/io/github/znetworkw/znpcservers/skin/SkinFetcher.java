@@ -2,17 +2,24 @@ package io.github.znetworkw.znpcservers.skin;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
 
 import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Retrieves the skin textures for a {@link SkinFetcherBuilder}.
@@ -29,13 +36,22 @@ public class SkinFetcher {
      */
     private static final String DEFAULT_CHARSET = "UTF-8";
     /**
-     * A executor service to delegate the work.
+     * How long to wait for the skin api server, in milliseconds.
      */
-    private static final ExecutorService SKIN_EXECUTOR_SERVICE = Executors.newCachedThreadPool();
+    private static final int TIMEOUT_MILLIS = 10000;
+    /**
+     * A executor service to delegate the work, the requests that do not fit
+     * on the queue are rejected instead of creating more threads.
+     */
+    private static final ThreadPoolExecutor SKIN_EXECUTOR_SERVICE = newSkinExecutor();
     /**
      * Creates a new parser.
      */
     private static final JsonParser JSON_PARSER = new JsonParser();
+    /**
+     * The skin requests that are in progress, by their cache key.
+     */
+    private static final Map<String, CompletableFuture<String[]>> PENDING_REQUESTS = new ConcurrentHashMap<>();
     /**
      * The skin builder.
      */
@@ -53,41 +69,122 @@ public class SkinFetcher {
     /**
      * Fetches the the skin from the specified
      * builder {@link SkinFetcherBuilder#getAPIServer()}.
-     * @return
+     * <p>
+     * The cached skins are returned right away, the requests for a skin that is
+     * already being fetched will share the same request.
+     *
+     * @param skinFetcherResult The result callback.
+     * @return The skin values future.
+     */
+    public CompletableFuture<String[]> doReadSkin(SkinFetcherResult skinFetcherResult) {
+        return doReadSkin(skinFetcherResult, true);
+    }
+
+    /**
+     * Fetches the the skin from the specified
+     * builder {@link SkinFetcherBuilder#getAPIServer()}.
+     *
+     * @param skinFetcherResult The result callback.
+     * @param useCache {@code false} to ignore the cached skin, the fetched skin is still cached.
+     * @return The skin values future.
+     */
+    public CompletableFuture<String[]> doReadSkin(SkinFetcherResult skinFetcherResult, boolean useCache) {
+        final String key = SkinCache.keyFor(builder);
+        final String[] cachedValues = useCache ? SkinCache.get(key) : null;
+        if (cachedValues != null) {
+            skinFetcherResult.onDone(cachedValues, null);
+            return CompletableFuture.completedFuture(cachedValues);
+        }
+        final CompletableFuture<String[]> completableFuture = PENDING_REQUESTS.computeIfAbsent(key, k -> fetchSkin());
+        completableFuture.whenComplete((values, throwable) -> {
+            PENDING_REQUESTS.remove(key, completableFuture);
+            skinFetcherResult.onDone(values, throwable);
+        });
+        return completableFuture;
+    }
+
+    /**
+     * Makes the request to the builder api server and caches the skin values.
+     *
+     * @return The skin values future.
      */
-    public CompletableFuture<JsonObject> doReadSkin(SkinFetcherResult skinFetcherResult) {
-        CompletableFuture<JsonObject> completableFuture = new CompletableFuture<>();
-        SKIN_EXECUTOR_SERVICE.submit(() -> {
-            try {
-                HttpURLConnection connection = (HttpURLConnection) new URL(builder.getAPIServer().getURL() + getData()).openConnection();
-                connection.setRequestMethod(builder.getAPIServer().getMethod());
-                connection.setDoInput(true);
-                if (builder.isUrlType()) {
-                    connection.setDoOutput(true);
-                    // send skin data
-                    try (DataOutputStream outputStream = new DataOutputStream(connection.getOutputStream())) {
-                        outputStream.writeBytes("url=" + URLEncoder.encode(builder.getData(), DEFAULT_CHARSET));
-                    }
+    private CompletableFuture<String[]> fetchSkin() {
+        CompletableFuture<String[]> completableFuture = new CompletableFuture<>();
+        SkinServerLimiter serverLimiter = SkinServerLimiter.forServer(builder.getAPIServer());
+        if (serverLimiter.isOpen()) {
+            // fail fast while the server is down
+            completableFuture.completeExceptionally(new IOException("skin server " + builder.getAPIServer().name() + " is unavailable"));
+            return completableFuture;
+        }
+        try {
+            SKIN_EXECUTOR_SERVICE.execute(() -> {
+                try {
+                    String[] values = serverLimiter.call(this::requestSkin);
+                    SkinCache.put(SkinCache.keyFor(builder), values);
+                    completableFuture.complete(values);
+                } catch (Throwable throwable) {
+                    completableFuture.completeExceptionally(throwable);
                 }
-                try (Reader reader = new InputStreamReader(connection.getInputStream(), Charset.forName(DEFAULT_CHARSET))) {
-                    completableFuture.complete(JSON_PARSER.parse(reader).getAsJsonObject());
-                } finally {
-                    connection.disconnect();
+            });
+        } catch (RejectedExecutionException e) {
+            completableFuture.completeExceptionally(e);
+        }
+        return completableFuture;
+    }
+
+    /**
+     * Makes the request to the builder api server.
+     *
+     * @return The skin values.
+     * @throws IOException If the request failed.
+     */
+    private String[] requestSkin() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(builder.getAPIServer().getURL() + getData()).openConnection();
+        try {
+            connection.setRequestMethod(builder.getAPIServer().getMethod());
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setDoInput(true);
+            if (builder.isUrlType()) {
+                connection.setDoOutput(true);
+                // send skin data
+                try (DataOutputStream outputStream = new DataOutputStream(connection.getOutputStream())) {
+                    outputStream.writeBytes("url=" + URLEncoder.encode(builder.getData(), DEFAULT_CHARSET));
                 }
-            } catch (Throwable throwable) {
-                completableFuture.completeExceptionally(throwable);
             }
-        });
-        completableFuture.whenComplete((response, throwable) -> {
-            if (completableFuture.isCompletedExceptionally()) {
-                skinFetcherResult.onDone(null, throwable);
-            } else {
-                JsonObject jsonObject = response.getAsJsonObject(builder.getAPIServer().getValueKey());
+            int responseCode = connection.getResponseCode();
+            if (responseCode == SkinServerLimiter.TOO_MANY_REQUESTS) {
+                throw new SkinServerLimiter.RateLimitedException(TimeUnit.SECONDS.toMillis(connection.getHeaderFieldInt("Retry-After", 0)));
+            } else if (responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                throw new IOException("skin server " + builder.getAPIServer().name() + " responded with: " + responseCode);
+            } else if (responseCode != HttpURLConnection.HTTP_OK) {
+                // no content or client error, the skin does not exist
+                throw new SkinServerLimiter.ClientErrorException("skin server " + builder.getAPIServer().name() + " responded with: " + responseCode);
+            }
+            try (Reader reader = new InputStreamReader(connection.getInputStream(), Charset.forName(DEFAULT_CHARSET))) {
+                JsonObject jsonObject = JSON_PARSER.parse(reader).getAsJsonObject().getAsJsonObject(builder.getAPIServer().getValueKey());
                 JsonObject properties = jsonObject.getAsJsonObject(builder.getAPIServer().getSignatureKey());
-                skinFetcherResult.onDone(new String[]{properties.get("value").getAsString(), properties.get("signature").getAsString()}, null);
+                return new String[]{properties.get("value").getAsString(), properties.get("signature").getAsString()};
             }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Creates the bounded executor for the skin requests.
+     */
+    private static ThreadPoolExecutor newSkinExecutor() {
+        final int threads = Math.max(1, ConfigurationConstants.SKIN_FETCH_THREADS);
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, ConfigurationConstants.SKIN_FETCH_QUEUE_SIZE)), runnable -> {
+            Thread thread = new Thread(runnable, "znpcs-skin-fetcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         });
-        return completableFuture;
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -1,5 +1,7 @@
 package io.github.znetworkw.znpcservers.skin;
 
+import java.util.Locale;
+
 /**
  * Builder for a {@link SkinFetcher}.
  */
@@ -104,7 +106,7 @@ public class SkinFetcherBuilder {
         /** The http request method. */
         private final String method;
 
-        /** The rest api server url. */
+        /** The rest api server url, can be replaced with the {@code znpcs.skin-server.<name>} system property. */
         private final String url;
 
         private final String valueKey;
@@ -121,7 +123,7 @@ public class SkinFetcherBuilder {
                    String valueKey,
                    String signatureKey) {
             this.method = method;
-            this.url = url;
+            this.url = System.getProperty("znpcs.skin-server." + name().toLowerCase(Locale.ROOT), url);
             this.valueKey = valueKey;
             this.signatureKey = signatureKey;
         }
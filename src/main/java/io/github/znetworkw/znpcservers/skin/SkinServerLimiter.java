@@ -0,0 +1,172 @@
+package io.github.znetworkw.znpcservers.skin;
+
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the requests made to a {@link SkinFetcherBuilder.SkinServer}.
+ * <p>
+ * Each server accepts up to {@link ConfigurationConstants#SKIN_REQUESTS_PER_SERVER} requests
+ * at the same time, the rate-limited requests are retried with exponential backoff and
+ * the requests fail fast while the server is failing, until {@link #OPEN_MILLIS} have passed.
+ * Only the server errors, timeouts and connection failures count as the server failing.
+ */
+public class SkinServerLimiter {
+    /** The http status code for rate-limited requests. */
+    public static final int TOO_MANY_REQUESTS = 429;
+    /** How many times a rate-limited request is retried. */
+    private static final int MAX_RETRIES = 3;
+    /** The first backoff delay, doubled on each retry. */
+    private static final long BASE_BACKOFF_MILLIS = 1000;
+    /** The max backoff delay. */
+    private static final long MAX_BACKOFF_MILLIS = 16000;
+    /** The consecutive failures that stop the requests to a server. */
+    private static final int FAILURE_THRESHOLD = 5;
+    /** How long the requests are stopped after reaching the {@link #FAILURE_THRESHOLD}. */
+    private static final long OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /** The limiter for each skin server. */
+    private static final Map<SkinFetcherBuilder.SkinServer, SkinServerLimiter> LIMITERS = new EnumMap<>(SkinFetcherBuilder.SkinServer.class);
+
+    static {
+        for (SkinFetcherBuilder.SkinServer skinServer : SkinFetcherBuilder.SkinServer.values()) {
+            LIMITERS.put(skinServer, new SkinServerLimiter(skinServer));
+        }
+    }
+
+    /** The skin server. */
+    private final SkinFetcherBuilder.SkinServer skinServer;
+    /** The permits for the requests in progress. */
+    private final Semaphore permits = new Semaphore(Math.max(1, ConfigurationConstants.SKIN_REQUESTS_PER_SERVER), true);
+
+    /** The consecutive failed requests. */
+    private int failures = 0;
+    /** The time until the requests fail fast, in milliseconds. */
+    private long openUntil = 0;
+
+    /**
+     * Creates a new limiter for the given server.
+     *
+     * @param skinServer The skin server.
+     */
+    private SkinServerLimiter(SkinFetcherBuilder.SkinServer skinServer) {
+        this.skinServer = skinServer;
+    }
+
+    /**
+     * Returns the limiter for the given server.
+     *
+     * @param skinServer The skin server.
+     * @return The server limiter.
+     */
+    public static SkinServerLimiter forServer(SkinFetcherBuilder.SkinServer skinServer) {
+        return LIMITERS.get(skinServer);
+    }
+
+    /**
+     * Returns {@code true} if the requests are stopped because the server is failing.
+     */
+    public synchronized boolean isOpen() {
+        return failures >= FAILURE_THRESHOLD && System.currentTimeMillis() < openUntil;
+    }
+
+    /**
+     * Makes a request to the server, waiting for a permit first.
+     *
+     * @param request The request.
+     * @param <T> The request result type.
+     * @return The request result.
+     * @throws Exception If the request failed, or {@link IOException} if the server is failing.
+     */
+    public <T> T call(Callable<T> request) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            if (isOpen()) {
+                throw new IOException("skin server " + skinServer.name() + " is unavailable");
+            }
+            final long backoffMillis;
+            permits.acquire();
+            try {
+                final T result = request.call();
+                recordSuccess();
+                return result;
+            } catch (RateLimitedException exception) {
+                if (attempt >= MAX_RETRIES) {
+                    recordFailure();
+                    throw exception;
+                }
+                // the server delay is capped so it can't hold the fetch threads
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, Math.max(exception.getRetryAfterMillis(), BASE_BACKOFF_MILLIS << attempt));
+            } catch (ClientErrorException exception) {
+                // the server is working, the request was invalid (like an unknown player name)
+                recordSuccess();
+                throw exception;
+            } catch (IOException exception) {
+                // server errors, timeouts and connection failures
+                recordFailure();
+                throw exception;
+            } finally {
+                permits.release();
+            }
+            // wait without the permit, so other requests can continue
+            Thread.sleep(backoffMillis);
+        }
+    }
+
+    /**
+     * Resets the consecutive failures.
+     */
+    private synchronized void recordSuccess() {
+        failures = 0;
+    }
+
+    /**
+     * Increases the consecutive failures, stopping the requests if the threshold is reached.
+     */
+    private synchronized void recordFailure() {
+        if (++failures >= FAILURE_THRESHOLD) {
+            openUntil = System.currentTimeMillis() + OPEN_MILLIS;
+        }
+    }
+
+    /**
+     * Thrown when the server rejects a request because the request is invalid,
+     * for example because the player name does not exist.
+     */
+    public static class ClientErrorException extends IOException {
+        /**
+         * @param message The exception message.
+         */
+        public ClientErrorException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when the server rejects a request because of its rate limit.
+     */
+    public static class RateLimitedException extends IOException {
+        /** The delay requested by the server, in milliseconds. */
+        private final long retryAfterMillis;
+
+        /**
+         * @param retryAfterMillis The delay requested by the server, in milliseconds.
+         */
+        public RateLimitedException(long retryAfterMillis) {
+            super("skin server rate limit reached");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        /**
+         * Returns the delay requested by the server, in milliseconds.
+         */
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
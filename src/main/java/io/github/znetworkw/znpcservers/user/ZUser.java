@@ -1,14 +1,19 @@
 package io.github.znetworkw.znpcservers.user;
 
-import io.github.znetworkw.znpcservers.ServersNPC;
 import io.github.znetworkw.znpcservers.npc.NPCAction;
 import io.github.znetworkw.znpcservers.npc.event.NPCInteractEvent;
 import io.github.znetworkw.znpcservers.npc.event.ClickType;
 import io.github.znetworkw.znpcservers.npc.NPC;
+import io.github.znetworkw.znpcservers.npc.packet.PacketFactory;
+import io.github.znetworkw.znpcservers.npc.task.NPCInteractTask;
 import io.github.znetworkw.znpcservers.cache.CacheRegistry;
 
-import io.github.znetworkw.znpcservers.utility.Utils;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationConstants;
+import io.github.znetworkw.znpcservers.utility.CooldownMap;
+import io.github.znetworkw.znpcservers.utility.TokenBucket;
+import com.google.common.collect.ImmutableList;
 import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
@@ -19,6 +24,7 @@ import org.bukkit.entity.Player;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Represents a user.
@@ -26,12 +32,12 @@ import java.util.*;
 public class ZUser {
     /** The name of the NPC interact channel. */
     private static final String CHANNEL_NAME = "npc_interact";
-    /** The default wait time between each npc interact. */
-    private static final int DEFAULT_DELAY = 1;
     /** A map containing the saved users. */
     private static final Map<UUID, ZUser> USER_MAP = new HashMap<>();
-    /** A map for checking the last interact time for an NPC. */
-    private final Map<Integer, Long> lastClicked;
+    /** The amount of interact packets dropped by the rate limit, for all users. */
+    private static final LongAdder DROPPED_INTERACTIONS = new LongAdder();
+    /** The action cooldowns of the user, by npc & action id. */
+    private final CooldownMap actionCooldowns;
     /**
      * A map of event services to run when the user trigger the specified service event.
      * @since 3.4
@@ -43,10 +49,14 @@ public class ZUser {
     private final GameProfile gameProfile;
     /** The user connection field. */
     private final Object playerConnection;
+    /** A copy of the user skin properties, copied again when the user skin changes. */
+    private volatile Collection<Property> skinProperties;
     /** {@code true} if the user is creating a npc path. */
     private boolean hasPath = false;
-    /** Used to compare the last interaction with an npc. */
-    private long lastInteract = 0;
+    /** The rate limit for the right clicks, used only by the user channel. */
+    private final TokenBucket rightClickLimit = new TokenBucket(ConfigurationConstants.RIGHT_CLICK_LIMIT);
+    /** The rate limit for the left clicks, used only by the user channel. */
+    private final TokenBucket leftClickLimit = new TokenBucket(ConfigurationConstants.LEFT_CLICK_LIMIT);
 
     /**
      * Creates a {@link ZUser} for the given uuid.
@@ -55,7 +65,7 @@ public class ZUser {
      */
     public ZUser(UUID uuid) {
         this.uuid = uuid;
-        lastClicked = new HashMap<>();
+        actionCooldowns = new CooldownMap();
         eventServices = new ArrayList<>();
         try { // handle npc user channel
             final Object playerHandle = CacheRegistry.GET_HANDLE_PLAYER_METHOD.invoke(toPlayer());
@@ -86,6 +96,41 @@ public class ZUser {
         return gameProfile;
     }
 
+    /**
+     * Returns a copy of the user skin properties, shared by the mirror NPCs.
+     * <p>
+     * The same copy is returned while the user skin does not change, a skin applied
+     * after the user joined (for example by a skin plugin) returns a new copy.
+     */
+    public Collection<Property> getSkinProperties() {
+        final Collection<Property> textures = gameProfile.getProperties().get("textures");
+        Collection<Property> properties = skinProperties;
+        if (properties == null || !sameProperties(properties, textures)) {
+            skinProperties = properties = ImmutableList.copyOf(textures);
+        }
+        return properties;
+    }
+
+    /**
+     * Returns {@code true} if both collections contain the same property instances,
+     * the profile properties are replaced (not modified) when the skin changes.
+     *
+     * @param copy The copied properties.
+     * @param textures The current profile properties.
+     */
+    private static boolean sameProperties(Collection<Property> copy, Collection<Property> textures) {
+        if (copy.size() != textures.size()) {
+            return false;
+        }
+        final Iterator<Property> iterator = textures.iterator();
+        for (Property property : copy) {
+            if (property != iterator.next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the user connection field.
      */
@@ -143,6 +188,40 @@ public class ZUser {
         return find(player.getUniqueId());
     }
 
+    /**
+     * Handles an interaction of the user with a npc, must be called on the main thread.
+     *
+     * @param npc The npc.
+     * @param clickType The click type.
+     */
+    public void interact(NPC npc,
+                         ClickType clickType) {
+        Bukkit.getServer().getPluginManager().callEvent(new NPCInteractEvent(toPlayer(), clickType, npc));
+        final List<NPCAction> actions = npc.getNpcPojo().getClickActions();
+        if (actions == null || actions.isEmpty()) { // check if the npc have actions
+            return;
+        }
+        for (NPCAction npcAction : actions) {
+            if (npcAction.getClickType() != ClickType.DEFAULT
+                    && clickType != npcAction.getClickType()) {
+                continue;
+            }
+            // handle delay for action
+            if (npcAction.getDelay() > 0 &&
+                !actionCooldowns.tryAcquire(((long) npc.getNpcPojo().getId() << 32) | (npcAction.getId() & 0xFFFFFFFFL), npcAction.getFixedDelay())) {
+                continue;
+            }
+            npcAction.run(this);
+        }
+    }
+
+    /**
+     * Returns the amount of interact packets dropped by the rate limit, for all users.
+     */
+    public static long getDroppedInteractions() {
+        return DROPPED_INTERACTIONS.sum();
+    }
+
     /**
      * Deletes the user for the given player {@link Player#getUniqueId()}.
      *
@@ -173,46 +252,22 @@ public class ZUser {
         protected void decode(ChannelHandlerContext channelHandlerContext, Object packet, List<Object> out) throws Exception {
             out.add(packet);
             if (packet.getClass() == CacheRegistry.PACKET_PLAY_IN_USE_ENTITY_CLASS) {
-                // check for interact wait time between npc
-                long lastInteractNanos = System.nanoTime() - lastInteract;
-                if (lastInteract != 0 && lastInteractNanos < Utils.SECOND_INTERVAL_NANOS * DEFAULT_DELAY) {
-                    return;
-                }
                 int entityId = CacheRegistry.PACKET_IN_USE_ENTITY_ID_FIELD.getInt(packet);
-                // try find npc
-                NPC npc = NPC.all().stream()
-                    .filter(npc1 -> npc1.getEntityID() == entityId)
-                    .findFirst()
-                    .orElse(null);
+                // try find npc, the clicks on other entities are not limited
+                NPC npc = NPC.findByEntityId(entityId);
                 if (npc == null) {
                     return;
                 }
-                ClickType clickName = ClickType.forName(npc.getPackets().getProxyInstance().getClickType(packet).toString()); // determine click type /right/left
-                lastInteract = System.nanoTime();
-                ServersNPC.SCHEDULER.scheduleSyncDelayedTask(() -> {
-                    Bukkit.getServer().getPluginManager().callEvent(new NPCInteractEvent(toPlayer(), clickName, npc));
-                    final List<NPCAction> actions = npc.getNpcPojo().getClickActions();
-                    if (actions == null || actions.isEmpty()) { // check if the npc have actions
-                        return;
-                    }
-                    for (NPCAction npcAction : actions) {
-                        if (npcAction.getClickType() != ClickType.DEFAULT
-                                && clickName != npcAction.getClickType()) {
-                            continue;
-                        }
-                        if (npcAction.getDelay() > 0) { // handle delay for action
-                            int actionId = npc.getNpcPojo().getClickActions().indexOf(npcAction);
-                            if (lastClicked.containsKey(actionId)) { // check for action interact time
-                                long lastClickNanos = System.nanoTime() - lastClicked.get(actionId);
-                                if (lastClickNanos < npcAction.getFixedDelay()) {
-                                    continue;
-                                }
-                            }
-                            lastClicked.put(actionId, System.nanoTime());
-                        }
-                        npcAction.run(ZUser.this, npcAction.getAction());
-                    }
-                }, DEFAULT_DELAY);
+                ClickType clickName = PacketFactory.PACKET_FOR_CURRENT_VERSION.getClickType(packet); // determine click type /right/left
+                // check the npc click rate of the player
+                if (!(clickName == ClickType.LEFT ? leftClickLimit : rightClickLimit).tryConsume()) {
+                    DROPPED_INTERACTIONS.increment();
+                    return;
+                }
+                // handled on the next tick with the other interactions
+                if (!NPCInteractTask.submit(ZUser.this, npc, clickName)) {
+                    DROPPED_INTERACTIONS.increment();
+                }
             }
         }
     }
@@ -1,21 +1,56 @@
 package io.github.znetworkw.znpcservers.utility;
 
+import io.github.znetworkw.znpcservers.configuration.Configuration;
+import io.github.znetworkw.znpcservers.configuration.ConfigurationValue;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Helper functions for BungeeCord.
+ * <p>
+ * The players are sent to the servers through a queue for each server, each server
+ * accepts up to {@link ConfigurationValue#SERVER_TRANSFER_RATE} players per second.
  */
 public class BungeeUtils {
+    /** The bungee plugin channel. */
+    private static final String CHANNEL_NAME = "BungeeCord";
+    /** The separator between the server name and the rate on the server rates. */
+    private static final char RATE_SEPARATOR = ':';
+    /** How often the waiting players are notified of their queue position. */
+    private static final int POSITION_MESSAGE_TICKS = 40; // 40 ticks = 2 seconds
+
     /**
      * The plugin instance.
      */
     private final Plugin plugin;
 
+    /** The transfer rate for each server, in players per second. */
+    private final Map<String, Integer> serverRates = new HashMap<>();
+    /** The transfer queue for each server. */
+    private final Map<String, TransferQueue> transferQueues = new HashMap<>();
+    /** The server each queued player is waiting for. */
+    private final Map<UUID, String> queuedPlayers = new HashMap<>();
+    /** The reused plugin message buffer. */
+    private final ByteArrayOutputStream messageBuffer = new ByteArrayOutputStream(64);
+    /** The output for the {@link #messageBuffer}. */
+    private final DataOutputStream messageOutput = new DataOutputStream(messageBuffer);
+    /** The default transfer rate, in players per second. */
+    private final int defaultRate;
+
+    /** The current tick, used for the position messages. */
+    private int ticks = 0;
+
     /**
      * Creates the bungee utils for the plugin.
      *
@@ -23,6 +58,92 @@ public class BungeeUtils {
      */
     public BungeeUtils(Plugin plugin) {
         this.plugin = plugin;
+        this.defaultRate = Configuration.CONFIGURATION.getValue(ConfigurationValue.SERVER_TRANSFER_RATE);
+        final List<String> rates = Configuration.CONFIGURATION.getValue(ConfigurationValue.SERVER_TRANSFER_RATES);
+        for (String rate : rates) { // server:rate
+            final int separatorIndex = rate.lastIndexOf(RATE_SEPARATOR);
+            if (separatorIndex == -1) {
+                throw new IllegalStateException("invalid server rate: " + rate);
+            }
+            serverRates.put(rate.substring(0, separatorIndex), Integer.parseInt(rate.substring(separatorIndex + 1).trim()));
+        }
+        Bukkit.getScheduler().runTaskTimer(plugin, this::processQueues, 1L, 1L);
+    }
+
+    /**
+     * Queues a player to be sent to a bungee server, must be called on the main thread.
+     * <p>
+     * The player is sent right away if the server queue is empty and the server
+     * rate allows it, otherwise the player is told its position on the queue.
+     *
+     * @param player The player to send.
+     * @param server The server name.
+     */
+    public void queuePlayerToServer(Player player, String server) {
+        final String previousServer = queuedPlayers.put(player.getUniqueId(), server);
+        if (previousServer != null && !previousServer.equals(server)) {
+            // the player changed the target server
+            transferQueues.get(previousServer).players.remove(player.getUniqueId());
+        }
+        final TransferQueue transferQueue = transferQueues.computeIfAbsent(server, TransferQueue::new);
+        if (transferQueue.players.isEmpty() && transferQueue.rateLimit.tryConsume()) {
+            queuedPlayers.remove(player.getUniqueId());
+            sendPlayerToServer(player, server);
+            return;
+        }
+        transferQueue.players.add(player.getUniqueId()); // keeps the position if already queued
+        Configuration.MESSAGES.sendMessage(player, ConfigurationValue.SERVER_QUEUE_POSITION,
+            server, positionOf(transferQueue, player.getUniqueId()));
+    }
+
+    /**
+     * Sends the queued players allowed by the server rates, called every tick.
+     */
+    private void processQueues() {
+        final boolean sendPositions = ++ticks % POSITION_MESSAGE_TICKS == 0;
+        for (TransferQueue transferQueue : transferQueues.values()) {
+            final Iterator<UUID> iterator = transferQueue.players.iterator();
+            int position = 0;
+            while (iterator.hasNext()) {
+                final UUID uuid = iterator.next();
+                final Player player = Bukkit.getPlayer(uuid);
+                if (player == null) { // player left while waiting, before spending a transfer on it
+                    iterator.remove();
+                    queuedPlayers.remove(uuid);
+                    continue;
+                }
+                if (position == 0 && transferQueue.rateLimit.tryConsume()) {
+                    iterator.remove();
+                    queuedPlayers.remove(uuid);
+                    sendPlayerToServer(player, transferQueue.server);
+                    continue;
+                }
+                if (!sendPositions) {
+                    break;
+                }
+                position++;
+                Configuration.MESSAGES.sendMessage(player, ConfigurationValue.SERVER_QUEUE_POSITION,
+                    transferQueue.server, position);
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the given player on the queue, starting at 1.
+     *
+     * @param transferQueue The server queue.
+     * @param uuid The player uuid.
+     * @return The player position, or {@code 0} if the player is not queued.
+     */
+    private static int positionOf(TransferQueue transferQueue, UUID uuid) {
+        int position = 0;
+        for (UUID queuedUUID : transferQueue.players) {
+            position++;
+            if (queuedUUID.equals(uuid)) {
+                return position;
+            }
+        }
+        return 0;
     }
 
     /**
@@ -31,16 +152,36 @@ public class BungeeUtils {
      * @param player The player to send to.
      * @param server The server name.
      */
-    public void sendPlayerToServer(Player player, String server) {
-        ByteArrayOutputStream b = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(b);
-
+    public synchronized void sendPlayerToServer(Player player, String server) {
+        messageBuffer.reset();
         try {
-            out.writeUTF("Connect");
-            out.writeUTF(server);
+            messageOutput.writeUTF("Connect");
+            messageOutput.writeUTF(server);
         } catch (IOException e) {
             e.printStackTrace();
         }
-        player.sendPluginMessage(plugin, "BungeeCord", b.toByteArray());
+        player.sendPluginMessage(plugin, CHANNEL_NAME, messageBuffer.toByteArray());
+    }
+
+    /**
+     * The transfer queue of a server.
+     */
+    private class TransferQueue {
+        /** The server name. */
+        private final String server;
+        /** The waiting players, in order. */
+        private final LinkedHashSet<UUID> players = new LinkedHashSet<>();
+        /** The server transfer rate. */
+        private final TokenBucket rateLimit;
+
+        /**
+         * Creates a new transfer queue for the given server.
+         *
+         * @param server The server name.
+         */
+        private TransferQueue(String server) {
+            this.server = server;
+            this.rateLimit = new TokenBucket(serverRates.getOrDefault(server, defaultRate));
+        }
     }
 }
@@ -0,0 +1,222 @@
+package io.github.znetworkw.znpcservers.utility;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A map with primitive {@code int} keys.
+ * <p>
+ * The lookups are lock-free and allocation-free, the writes are synchronized.
+ * The entries are stored in an open addressing table that is at most half full,
+ * so a missing key is usually rejected with a single probe.
+ *
+ * @param <V> The value type.
+ */
+public class ConcurrentIntMap<V> {
+    /** The key of the empty slots, cannot be used as a key. */
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+    /** The initial table capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** The current table, replaced when resized. */
+    private volatile Table<V> table = new Table<>(DEFAULT_CAPACITY);
+    /** The amount of keys with a value. */
+    private int size = 0;
+    /** The amount of slots with a key, including the removed keys. */
+    private int usedSlots = 0;
+
+    /**
+     * Returns the value for the given key.
+     *
+     * @param key The key.
+     * @return The value, or {@code null} if the map does not contain the key.
+     */
+    public V get(int key) {
+        return table.get(key);
+    }
+
+    /**
+     * Returns the amount of entries in the map.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Associates the value with the given key.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return The previous value, or {@code null} if the map did not contain the key.
+     * @throws IllegalArgumentException If the key is {@link Integer#MIN_VALUE}.
+     */
+    public synchronized V put(int key, V value) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("invalid key: " + key);
+        }
+        Objects.requireNonNull(value);
+        Table<V> currentTable = table;
+        int slot = currentTable.slotFor(key);
+        if (currentTable.keys.get(slot) == key) {
+            final V previous = currentTable.values.getAndSet(slot, value);
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+        if ((usedSlots + 1) * 2 > currentTable.capacity()) {
+            currentTable = resize(size + 1);
+            slot = currentTable.slotFor(key);
+        }
+        // the value must be visible before the key
+        currentTable.values.set(slot, value);
+        currentTable.keys.set(slot, key);
+        usedSlots++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the value for the given key.
+     *
+     * @param key The key.
+     * @return The removed value, or {@code null} if the map did not contain the key.
+     */
+    public synchronized V remove(int key) {
+        final Table<V> currentTable = table;
+        final int slot = currentTable.slotFor(key);
+        if (currentTable.keys.get(slot) != key) {
+            return null;
+        }
+        // the key is kept, the slot will be reused if the key is added again
+        final V previous = currentTable.values.getAndSet(slot, null);
+        if (previous != null) {
+            size--;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the value for the given key only if it is the given value.
+     *
+     * @param key The key.
+     * @param value The expected value.
+     * @return {@code true} If the value was removed.
+     */
+    public synchronized boolean remove(int key, V value) {
+        final Table<V> currentTable = table;
+        final int slot = currentTable.slotFor(key);
+        if (currentTable.keys.get(slot) != key || !currentTable.values.compareAndSet(slot, value, null)) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Creates a new table for the current entries, without the removed keys.
+     * <p>
+     * <b>NOTE:</b> Must be called while holding the map lock.
+     *
+     * @param minSize The minimum amount of entries of the new table.
+     * @return The new table.
+     */
+    private Table<V> resize(int minSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < minSize * 4) {
+            capacity <<= 1;
+        }
+        final Table<V> oldTable = table;
+        final Table<V> newTable = new Table<>(capacity);
+        for (int i = 0; i < oldTable.capacity(); i++) {
+            final V value = oldTable.values.get(i);
+            if (value == null) {
+                continue;
+            }
+            final int slot = newTable.slotFor(oldTable.keys.get(i));
+            newTable.values.set(slot, value);
+            newTable.keys.set(slot, oldTable.keys.get(i));
+        }
+        usedSlots = size;
+        table = newTable;
+        return newTable;
+    }
+
+    /**
+     * The open addressing table of the map.
+     *
+     * @param <V> The value type.
+     */
+    private static class Table<V> {
+        /** The slot keys. */
+        private final AtomicIntegerArray keys;
+        /** The slot values. */
+        private final AtomicReferenceArray<V> values;
+        /** The mask for the slot index, the capacity is a power of two. */
+        private final int mask;
+
+        /**
+         * Creates a new empty table.
+         *
+         * @param capacity The table capacity, must be a power of two.
+         */
+        private Table(int capacity) {
+            keys = new AtomicIntegerArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY_KEY);
+            }
+        }
+
+        /**
+         * Returns the table capacity.
+         */
+        private int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * Returns the value for the given key.
+         *
+         * @param key The key.
+         * @return The value, or {@code null} if the table does not contain the key.
+         */
+        private V get(int key) {
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                final int slotKey = keys.get(slot);
+                if (slotKey == key) {
+                    return values.get(slot);
+                } else if (slotKey == EMPTY_KEY) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Returns the slot that contains the given key, or the empty slot for the key.
+         *
+         * @param key The key.
+         * @return The slot for the key.
+         */
+        private int slotFor(int key) {
+            int slot = hash(key) & mask;
+            for (int slotKey = keys.get(slot); slotKey != key && slotKey != EMPTY_KEY; slotKey = keys.get(slot)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Spreads the key bits, the entity ids are sequential.
+         *
+         * @param key The key.
+         * @return The key hash.
+         */
+        private static int hash(int key) {
+            final int hash = key * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.znetworkw.znpcservers.utility;
+
+/**
+ * A map of cooldowns with primitive {@code long} keys.
+ * <p>
+ * Each key is mapped to the time its cooldown ends, the expired entries are
+ * treated as missing and are dropped when the map is resized.
+ * <b>NOTE:</b> Not thread-safe.
+ */
+public class CooldownMap {
+    /** The key of the empty slots, cannot be used as a key. */
+    private static final long EMPTY_KEY = 0L;
+    /** The initial table capacity. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** The slot keys. */
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    /** The time each cooldown ends, in nanoseconds. */
+    private long[] expireTimes = new long[DEFAULT_CAPACITY];
+    /** The amount of slots with a key. */
+    private int size = 0;
+
+    /**
+     * Starts the cooldown for the given key if it is not already in cooldown.
+     *
+     * @param key The key, cannot be {@code 0}.
+     * @param cooldownNanos The cooldown time, in nanoseconds.
+     * @return {@code true} If the cooldown was started, {@code false} if the key is in cooldown.
+     * @throws IllegalArgumentException If the key is {@code 0}.
+     */
+    public boolean tryAcquire(long key, long cooldownNanos) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("invalid key: " + key);
+        }
+        final long now = System.nanoTime();
+        int slot = slotFor(key);
+        if (keys[slot] == key) {
+            if (expireTimes[slot] - now > 0) {
+                return false;
+            }
+            expireTimes[slot] = now + cooldownNanos;
+            return true;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(now);
+            slot = slotFor(key);
+        }
+        keys[slot] = key;
+        expireTimes[slot] = now + cooldownNanos;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns the slot that contains the given key, or the empty slot for the key.
+     *
+     * @param key The key.
+     * @return The slot for the key.
+     */
+    private int slotFor(long key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key && keys[slot] != EMPTY_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Creates a new table without the expired entries, grows the table if needed.
+     *
+     * @param now The current time, in nanoseconds.
+     */
+    private void rehash(long now) {
+        final long[] oldKeys = keys;
+        final long[] oldExpireTimes = expireTimes;
+        int activeSize = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY && oldExpireTimes[i] - now > 0) {
+                activeSize++;
+            }
+        }
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < (activeSize + 1) * 4) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        expireTimes = new long[capacity];
+        size = activeSize;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY && oldExpireTimes[i] - now > 0) {
+                final int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                expireTimes[slot] = oldExpireTimes[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads the key bits.
+     *
+     * @param key The key.
+     * @return The key hash.
+     */
+    private static int hash(long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.znetworkw.znpcservers.utility;
+
+/**
+ * A token bucket rate limiter.
+ * <p>
+ * The bucket is refilled continuously with the given rate and can hold up to one second of tokens,
+ * a rate of zero or less does not limit.
+ * <b>NOTE:</b> Not thread-safe, each bucket must be used by a single thread.
+ */
+public class TokenBucket {
+    /** The amount of tokens added per nanosecond. */
+    private final double tokensPerNano;
+    /** The maximum amount of tokens. */
+    private final double capacity;
+    /** {@code true} If the bucket does not limit. */
+    private final boolean unlimited;
+
+    /** The current amount of tokens. */
+    private double tokens;
+    /** The last time the tokens were refilled. */
+    private long lastRefill;
+
+    /**
+     * Creates a new full token bucket.
+     *
+     * @param tokensPerSecond The amount of tokens added per second, zero or less for unlimited.
+     */
+    public TokenBucket(int tokensPerSecond) {
+        this.unlimited = tokensPerSecond < 1;
+        this.tokensPerNano = (double) tokensPerSecond / Utils.SECOND_INTERVAL_NANOS;
+        this.capacity = tokensPerSecond;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Tries to take a token from the bucket.
+     *
+     * @return {@code true} If a token was taken, {@code false} if the bucket is empty.
+     */
+    public boolean tryConsume() {
+        if (unlimited) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
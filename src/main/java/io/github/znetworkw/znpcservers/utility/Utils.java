@@ -11,6 +11,8 @@ import org.bukkit.entity.Player;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -23,6 +25,14 @@ public final class Utils {
     /** Represents one second in nanos */
     public static final long SECOND_INTERVAL_NANOS = 1000 * 1000 * 1000L;
 
+    /** The fields located by {@link #setValue} and {@link #getValue}, by class and name. */
+    private static final ClassValue<Map<String, Field>> DECLARED_FIELDS = new ClassValue<Map<String, Field>>() {
+        @Override
+        protected Map<String, Field> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /** Returns {@code true} if the plugin should use external placeholders. */
     public static boolean PLACEHOLDER_SUPPORT = Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI");
 
@@ -115,9 +125,7 @@ public final class Utils {
             Object fieldInstance,
             String fieldName,
             Object value) throws NoSuchFieldException, IllegalAccessException {
-        Field f = fieldInstance.getClass().getDeclaredField(fieldName);
-        f.setAccessible(true);
-        f.set(fieldInstance, value);
+        findField(fieldInstance.getClass(), fieldName).set(fieldInstance, value);
     }
 
     /**
@@ -133,9 +141,27 @@ public final class Utils {
             Object instance,
             String fieldName)
             throws NoSuchFieldException, IllegalAccessException {
-        Field f = instance.getClass().getDeclaredField(fieldName);
-        f.setAccessible(true);
-        return f.get(instance);
+        return findField(instance.getClass(), fieldName).get(instance);
+    }
+
+    /**
+     * Locates the declared field of the given class, the fields are located once for each class.
+     *
+     * @param type The field class.
+     * @param fieldName The field name.
+     * @return The accessible field.
+     * @throws NoSuchFieldException If the field could not be found.
+     */
+    private static Field findField(Class<?> type,
+                                   String fieldName) throws NoSuchFieldException {
+        final Map<String, Field> fields = DECLARED_FIELDS.get(type);
+        Field field = fields.get(fieldName);
+        if (field == null) {
+            field = type.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            fields.put(fieldName, field);
+        }
+        return field;
     }
 
     /**